@@ -2,6 +2,7 @@ plugins {
     id("java")
     id("java-library")
     id("maven-publish")
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 java {
@@ -32,6 +33,18 @@ dependencies {
     api("net.thenextlvl.core:paper:1.3.5")
 
     annotationProcessor("org.projectlombok:lombok:1.18.32")
+
+    jmh(platform("com.intellectualsites.bom:bom-newest:1.45"))
+    jmh("com.fastasyncworldedit:FastAsyncWorldEdit-Core")
+
+    testImplementation("io.papermc.paper:paper-api:1.20.6-R0.1-SNAPSHOT")
+    testImplementation(platform("org.junit:junit-bom:5.10.2"))
+    testImplementation("org.junit.jupiter:junit-jupiter")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+}
+
+tasks.test {
+    useJUnitPlatform()
 }
 
 publishing {
@@ -0,0 +1,81 @@
+package net.thenextlvl.gopaint.api.brush.mask;
+
+import com.sk89q.worldedit.function.mask.Mask;
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldedit.math.Vector3;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@link DepthBufferMask} against the per-block rays of the {@link VisibleMask}.
+ * <p>
+ * Both masks test every solid block of a brush sphere on rolling terrain, seen from above at an angle,
+ * each invocation starting with an empty opacity cache like a new stroke does.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SurfaceMaskBenchmark {
+    @Param({"4", "16", "50"})
+    private int radius;
+
+    @Param({"16", "64"})
+    private int distance;
+
+    private final OpacityCache.Source terrain = (x, y, z) -> y <= getSurface(x, z);
+    private final List<BlockVector3> blocks = new ArrayList<>();
+    private BlockVector3 center;
+    private Vector3 viewPoint;
+
+    @Setup
+    public void setup() {
+        center = BlockVector3.at(0, getSurface(0, 0), 0);
+        viewPoint = Vector3.at(-distance, center.getY() + distance / 2d, -distance / 3d);
+        blocks.clear();
+        var limit = (radius + 0.5) * (radius + 0.5);
+        for (var x = -radius; x <= radius; x++) {
+            for (var y = -radius; y <= radius; y++) {
+                for (var z = -radius; z <= radius; z++) {
+                    if (x * x + y * y + z * z > limit) continue;
+                    var block = center.add(x, y, z);
+                    if (terrain.isOpaque(block.getX(), block.getY(), block.getZ())) blocks.add(block);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void visible(Blackhole blackhole) {
+        test(new VisibleMask(null, viewPoint, new OpacityCache(terrain)), blackhole);
+    }
+
+    @Benchmark
+    public void depth(Blackhole blackhole) {
+        test(new DepthBufferMask(null, viewPoint, center, radius, new OpacityCache(terrain)), blackhole);
+    }
+
+    private void test(Mask mask, Blackhole blackhole) {
+        for (var block : blocks) blackhole.consume(mask.test(block));
+    }
+
+    private static int getSurface(int x, int z) {
+        return 64 + (int) Math.round(6 * Math.sin(x / 5d) + 4 * Math.cos(z / 7d));
+    }
+}
@@ -5,6 +5,7 @@ import com.sk89q.worldedit.MaxChangedBlocksException;
 import com.sk89q.worldedit.function.pattern.Pattern;
 import com.sk89q.worldedit.math.BlockVector3;
 import net.kyori.adventure.key.Key;
+import net.thenextlvl.gopaint.api.math.OffsetTables;
 
 public abstract class SpherePatternBrush extends PatternBrush {
     public SpherePatternBrush(String headValue, Key key) {
@@ -13,6 +14,10 @@ public abstract class SpherePatternBrush extends PatternBrush {
 
     @Override
     public final void build(EditSession session, BlockVector3 position, Pattern pattern, double size) throws MaxChangedBlocksException {
+        if (OffsetTables.isCacheable(size)) {
+            OffsetTables.ball(size).forEach(position, (x, y, z) -> session.setBlock(x, y, z, pattern));
+            return;
+        }
         session.makeSphere(position, pattern, size, size, size, true);
     }
 }
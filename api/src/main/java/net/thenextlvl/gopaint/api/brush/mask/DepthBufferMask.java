@@ -0,0 +1,243 @@
+package net.thenextlvl.gopaint.api.brush.mask;
+
+import com.sk89q.worldedit.extent.Extent;
+import com.sk89q.worldedit.function.mask.Mask;
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldedit.math.Vector3;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * A mask that only accepts blocks not hidden behind other blocks as seen from the view point.
+ * <p>
+ * Instead of casting a ray per block, the bounding volume of the brush is projected onto a depth buffer
+ * centered on the view point. Every pixel of the buffer is resolved front to back with a single ray
+ * on first use, after which each block is tested in constant time by comparing the distance of the point
+ * facing the view point, the same point a {@link VisibleMask} casts its ray from, with the depth of its pixel.
+ * Blocks within half a block diagonal of the depth count as visible.
+ * <p>
+ * The result is an approximation of a {@link VisibleMask}. A pixel covers several rays, so blocks close to the edge
+ * of an occluder may be accepted or rejected differently. The buffer is limited to four pixels per block of the
+ * cross-section of the bounding volume, and to {@value #MAX_PIXELS} pixels overall,
+ * so brushes seen from close by or larger brushes get coarser pixels.
+ * <p>
+ * Depth buffers are reused per thread. Only the mask that used the buffer of its thread last keeps its depths,
+ * any other mask claiming it again starts over with an empty buffer, so masks are best used one after another.
+ * <p>
+ * If the view point is inside or too close to the bounding volume, or a block lies outside it,
+ * the block is tested by a {@link VisibleMask} sharing the same {@link OpacityCache}.
+ */
+public final class DepthBufferMask implements Mask {
+    private static final double HALF_DIAGONAL = Math.sqrt(3) / 2;
+    private static final int MAX_PIXELS = 1 << 18;
+
+    private final Extent extent;
+    private final Vector3 viewPoint;
+    private final BlockVector3 center;
+    private final int radius;
+
+    private static final ThreadLocal<DepthBuffer> BUFFERS = ThreadLocal.withInitial(DepthBuffer::new);
+
+    private final OpacityCache cache;
+    private final VisibleMask fallback;
+
+    private double forwardX, forwardY, forwardZ;
+    private double rightX, rightY, rightZ;
+    private double upX, upY, upZ;
+
+    private double minA, minB, pixel, maxDistance;
+    private int width, height;
+    private boolean projected;
+
+    private @Nullable DepthBuffer buffer;
+    private long claim;
+
+    /**
+     * Creates a new depth buffer mask.
+     *
+     * @param extent    the extent to read the blocks from
+     * @param viewPoint the point the blocks are seen from
+     * @param center    the center of the bounding volume
+     * @param radius    the radius of the bounding volume
+     */
+    public DepthBufferMask(Extent extent, Vector3 viewPoint, BlockVector3 center, int radius) {
+        this(extent, viewPoint, center, radius, new OpacityCache(extent));
+    }
+
+    /**
+     * Creates a new depth buffer mask reading the blocks from the given opacity cache.
+     *
+     * @param extent    the extent copies of this mask read the blocks from
+     * @param viewPoint the point the blocks are seen from
+     * @param center    the center of the bounding volume
+     * @param radius    the radius of the bounding volume
+     * @param cache     the opacity cache to read the blocks from
+     */
+    public DepthBufferMask(Extent extent, Vector3 viewPoint, BlockVector3 center, int radius, OpacityCache cache) {
+        this.extent = extent;
+        this.viewPoint = viewPoint;
+        this.center = center;
+        this.radius = Math.max(0, radius);
+        this.cache = cache;
+        this.fallback = new VisibleMask(extent, viewPoint, cache);
+        project();
+    }
+
+    private void project() {
+        forwardX = center.getX() + 0.5 - viewPoint.getX();
+        forwardY = center.getY() + 0.5 - viewPoint.getY();
+        forwardZ = center.getZ() + 0.5 - viewPoint.getZ();
+        var length = Math.sqrt(forwardX * forwardX + forwardY * forwardY + forwardZ * forwardZ);
+        if (length < 1) return;
+        forwardX /= length;
+        forwardY /= length;
+        forwardZ /= length;
+
+        rightX = -forwardZ;
+        rightY = 0;
+        rightZ = forwardX;
+        var right = Math.sqrt(rightX * rightX + rightZ * rightZ);
+        if (right < 1e-6) {
+            rightX = 1;
+            rightZ = 0;
+        } else {
+            rightX /= right;
+            rightZ /= right;
+        }
+        upX = rightY * forwardZ - rightZ * forwardY;
+        upY = rightZ * forwardX - rightX * forwardZ;
+        upZ = rightX * forwardY - rightY * forwardX;
+
+        minA = minB = Double.POSITIVE_INFINITY;
+        var maxA = Double.NEGATIVE_INFINITY;
+        var maxB = Double.NEGATIVE_INFINITY;
+        for (var corner = 0; corner < 8; corner++) {
+            var x = center.getX() + ((corner & 1) == 0 ? -radius : radius + 1) - viewPoint.getX();
+            var y = center.getY() + ((corner & 2) == 0 ? -radius : radius + 1) - viewPoint.getY();
+            var z = center.getZ() + ((corner & 4) == 0 ? -radius : radius + 1) - viewPoint.getZ();
+            var depth = x * forwardX + y * forwardY + z * forwardZ;
+            if (depth < 1) return;
+            var a = (x * rightX + y * rightY + z * rightZ) / depth;
+            var b = (x * upX + y * upY + z * upZ) / depth;
+            minA = Math.min(minA, a);
+            minB = Math.min(minB, b);
+            maxA = Math.max(maxA, a);
+            maxB = Math.max(maxB, b);
+            maxDistance = Math.max(maxDistance, Math.sqrt(x * x + y * y + z * z));
+        }
+
+        pixel = 0.5 / maxDistance;
+        var side = 2 * radius + 1d;
+        var limit = Math.min(MAX_PIXELS, 4 * side * side);
+        var pixels = ((maxA - minA) / pixel + 1) * ((maxB - minB) / pixel + 1);
+        if (pixels > limit) pixel *= Math.sqrt(pixels / limit);
+        width = (int) Math.ceil((maxA - minA) / pixel) + 1;
+        height = (int) Math.ceil((maxB - minB) / pixel) + 1;
+        projected = true;
+    }
+
+    @Override
+    public boolean test(BlockVector3 vector) {
+        if (!projected) return fallback.test(vector);
+
+        var x = vector.getX() + offset(viewPoint.getX() - vector.getX()) - viewPoint.getX();
+        var y = vector.getY() + offset(viewPoint.getY() - vector.getY()) - viewPoint.getY();
+        var z = vector.getZ() + offset(viewPoint.getZ() - vector.getZ()) - viewPoint.getZ();
+        var depth = x * forwardX + y * forwardY + z * forwardZ;
+        if (depth <= 0) return fallback.test(vector);
+
+        var column = (int) (((x * rightX + y * rightY + z * rightZ) / depth - minA) / pixel);
+        var row = (int) (((x * upX + y * upY + z * upZ) / depth - minB) / pixel);
+        if (column < 0 || row < 0 || column >= width || row >= height) return fallback.test(vector);
+
+        return Math.sqrt(x * x + y * y + z * z) - HALF_DIAGONAL <= getDepth(column, row);
+    }
+
+    private double getDepth(int column, int row) {
+        var depths = getDepths();
+        var index = row * width + column;
+        var depth = depths[index];
+        if (Float.isNaN(depth)) depths[index] = depth = (float) trace(column, row);
+        return depth;
+    }
+
+    private float[] getDepths() {
+        var buffer = this.buffer;
+        if (buffer != null && buffer.claims == claim && buffer.thread == Thread.currentThread()) return buffer.depths;
+        buffer = this.buffer = BUFFERS.get();
+        claim = ++buffer.claims;
+        var size = width * height;
+        if (buffer.depths.length < size) buffer.depths = new float[size];
+        Arrays.fill(buffer.depths, 0, size, Float.NaN);
+        return buffer.depths;
+    }
+
+    private double trace(int column, int row) {
+        var a = minA + (column + 0.5) * pixel;
+        var b = minB + (row + 0.5) * pixel;
+        var directionX = forwardX + a * rightX + b * upX;
+        var directionY = forwardY + a * rightY + b * upY;
+        var directionZ = forwardZ + a * rightZ + b * upZ;
+        var length = Math.sqrt(directionX * directionX + directionY * directionY + directionZ * directionZ);
+        directionX /= length;
+        directionY /= length;
+        directionZ /= length;
+
+        var x = (int) Math.floor(viewPoint.getX());
+        var y = (int) Math.floor(viewPoint.getY());
+        var z = (int) Math.floor(viewPoint.getZ());
+
+        var stepX = (int) Math.signum(directionX);
+        var stepY = (int) Math.signum(directionY);
+        var stepZ = (int) Math.signum(directionZ);
+
+        var deltaX = stepX != 0 ? Math.abs(1 / directionX) : Double.POSITIVE_INFINITY;
+        var deltaY = stepY != 0 ? Math.abs(1 / directionY) : Double.POSITIVE_INFINITY;
+        var deltaZ = stepZ != 0 ? Math.abs(1 / directionZ) : Double.POSITIVE_INFINITY;
+
+        var maxX = boundary(viewPoint.getX(), x, stepX, directionX);
+        var maxY = boundary(viewPoint.getY(), y, stepY, directionY);
+        var maxZ = boundary(viewPoint.getZ(), z, stepZ, directionZ);
+
+        var entry = 0d;
+        while (entry <= maxDistance) {
+            if (cache.isOpaque(x, y, z)) return entry;
+            if (maxX <= maxY && maxX <= maxZ) {
+                entry = maxX;
+                x += stepX;
+                maxX += deltaX;
+            } else if (maxY <= maxZ) {
+                entry = maxY;
+                y += stepY;
+                maxY += deltaY;
+            } else {
+                entry = maxZ;
+                z += stepZ;
+                maxZ += deltaZ;
+            }
+        }
+        return Double.POSITIVE_INFINITY;
+    }
+
+    private static double offset(double distance) {
+        return distance > 1 ? 1 : distance > 0 ? 0.5 : 0;
+    }
+
+    private static double boundary(double start, int voxel, int step, double direction) {
+        if (step > 0) return (voxel + 1 - start) / direction;
+        if (step < 0) return (voxel - start) / direction;
+        return Double.POSITIVE_INFINITY;
+    }
+
+    @Override
+    public Mask copy() {
+        return new DepthBufferMask(extent, viewPoint, center, radius);
+    }
+
+    private static final class DepthBuffer {
+        private final Thread thread = Thread.currentThread();
+        private float[] depths = new float[0];
+        private long claims;
+    }
+}
@@ -0,0 +1,101 @@
+package net.thenextlvl.gopaint.api.brush.mask;
+
+import com.sk89q.worldedit.function.mask.Mask;
+import com.sk89q.worldedit.math.BlockVector3;
+import net.thenextlvl.gopaint.api.math.OffsetTables;
+import org.bukkit.Axis;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A mask that assigns every block of a swept stroke to the dab whose center is nearest to it.
+ * <p>
+ * Painting every dab of a stroke through its own footprint mask partitions the swept capsule into one footprint,
+ * in which every block is offered exactly once, to its nearest dab. Since the decision only depends on the position
+ * of the block, blocks a pattern rejects stay rejected, and falloff is always measured from the nearest dab,
+ * so dabs neither paint over each other nor leave seams between them.
+ * Equally distant dabs are resolved in favour of the earlier one.
+ * <p>
+ * Flat footprints, such as discs, only contain blocks in the plane of their dab, so for those a dab only competes
+ * for blocks that lie in its own plane.
+ * <p>
+ * The leading dabs of a stroke may be carried over from the previous stroke, such as the last dab of the previous
+ * tick of a drag. Carried dabs were already painted, so they are never painted again, and they keep their whole
+ * footprint instead of only the blocks nearest to them, so consecutive strokes do not paint shared blocks twice.
+ *
+ * @param dabs       the centers of all dabs of the stroke, starting with the carried dabs
+ * @param dab        the index of the dab this mask accepts blocks for
+ * @param candidates the indices of the dabs that may be nearer than {@code dab} to any block of its footprint
+ * @param carried    the amount of leading dabs carried over from the previous stroke
+ * @param limit      the inclusive squared distance of a block of a dab footprint to its center
+ * @param plane      the axis flat footprints are perpendicular to, or null for solid footprints
+ */
+public record FootprintMask(
+        List<BlockVector3> dabs,
+        int dab,
+        int[] candidates,
+        int carried,
+        int limit,
+        @Nullable Axis plane
+) implements Mask {
+
+    /**
+     * Creates the footprint masks of all dabs of a stroke.
+     *
+     * @param dabs    the centers of all dabs of the stroke, starting with the carried dabs
+     * @param carried the amount of leading dabs carried over from the previous stroke
+     * @param radius  the radius of a dab footprint
+     * @param plane   the axis flat footprints are perpendicular to, or null for solid footprints
+     * @return the footprint mask of every dab, in the same order as the dabs
+     * @see OffsetTables#getBallLimit(double)
+     */
+    public static FootprintMask[] of(List<BlockVector3> dabs, int carried, double radius, @Nullable Axis plane) {
+        var limit = OffsetTables.getBallLimit(radius);
+        var masks = new FootprintMask[dabs.size()];
+        for (var dab = 0; dab < masks.length; dab++) {
+            var center = dabs.get(dab);
+            var candidates = new int[dabs.size()];
+            var size = 0;
+            for (var other = 0; other < dabs.size(); other++) {
+                if (other != dab && distance(center, dabs.get(other)) <= 4L * limit) candidates[size++] = other;
+            }
+            masks[dab] = new FootprintMask(dabs, dab, Arrays.copyOf(candidates, size), carried, limit, plane);
+        }
+        return masks;
+    }
+
+    @Override
+    public boolean test(BlockVector3 vector) {
+        var distance = distance(vector, dabs.get(dab));
+        for (var other : candidates) {
+            var center = dabs.get(other);
+            if (plane != null && getCoordinate(vector, plane) != getCoordinate(center, plane)) continue;
+            var otherDistance = distance(vector, center);
+            if (other < carried && otherDistance <= limit) return false;
+            if (otherDistance < distance || otherDistance == distance && other < dab) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public Mask copy() {
+        return this;
+    }
+
+    private static int getCoordinate(BlockVector3 vector, Axis axis) {
+        return switch (axis) {
+            case X -> vector.getX();
+            case Y -> vector.getY();
+            case Z -> vector.getZ();
+        };
+    }
+
+    private static long distance(BlockVector3 first, BlockVector3 second) {
+        long distanceX = first.getX() - second.getX();
+        long distanceY = first.getY() - second.getY();
+        long distanceZ = first.getZ() - second.getZ();
+        return distanceX * distanceX + distanceY * distanceY + distanceZ * distanceZ;
+    }
+}
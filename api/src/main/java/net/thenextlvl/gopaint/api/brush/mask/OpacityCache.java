@@ -0,0 +1,80 @@
+package net.thenextlvl.gopaint.api.brush.mask;
+
+import com.sk89q.worldedit.extent.Extent;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A lazily filled cache of which blocks of an extent are not air.
+ * <p>
+ * Blocks are tracked in bitsets per 16x16x16 section, so rays sharing a viewpoint read every block
+ * along their common path only once. Caches are not thread-safe.
+ */
+public final class OpacityCache {
+    private final Map<Long, long[]> sections = new HashMap<>();
+    private final Source source;
+
+    private long lastKey = Long.MIN_VALUE;
+    private long[] lastSection = new long[0];
+
+    /**
+     * Creates a new opacity cache backed by the given extent.
+     *
+     * @param extent the extent to read the blocks from
+     */
+    public OpacityCache(Extent extent) {
+        this((x, y, z) -> !extent.getBlock(x, y, z).getMaterial().isAir());
+    }
+
+    /**
+     * Creates a new opacity cache backed by the given source.
+     *
+     * @param source the source to read the opacity of blocks from
+     */
+    public OpacityCache(Source source) {
+        this.source = source;
+    }
+
+    /**
+     * Checks whether the block at the given position is not air.
+     *
+     * @param x the x-coordinate of the block
+     * @param y the y-coordinate of the block
+     * @param z the z-coordinate of the block
+     * @return true if the block is not air
+     */
+    public boolean isOpaque(int x, int y, int z) {
+        var key = ((long) (x >> 4) & 0x3FFFFF) << 42 | ((long) (z >> 4) & 0x3FFFFF) << 20 | (y >> 4) & 0xFFFFF;
+        var section = key == lastKey ? lastSection : getSection(key);
+        var index = (y & 15) << 8 | (z & 15) << 4 | x & 15;
+        var word = index >>> 6;
+        var bit = 1L << index;
+        if ((section[word] & bit) != 0) return (section[word + 64] & bit) != 0;
+        var opaque = source.isOpaque(x, y, z);
+        section[word] |= bit;
+        if (opaque) section[word + 64] |= bit;
+        return opaque;
+    }
+
+    private long[] getSection(long key) {
+        lastKey = key;
+        return lastSection = sections.computeIfAbsent(key, ignored -> new long[128]);
+    }
+
+    /**
+     * The source an opacity cache reads uncached blocks from.
+     */
+    @FunctionalInterface
+    public interface Source {
+        /**
+         * Checks whether the block at the given position is not air.
+         *
+         * @param x the x-coordinate of the block
+         * @param y the y-coordinate of the block
+         * @param z the z-coordinate of the block
+         * @return true if the block is not air
+         */
+        boolean isOpaque(int x, int y, int z);
+    }
+}
@@ -0,0 +1,58 @@
+package net.thenextlvl.gopaint.api.brush.mask;
+
+import com.sk89q.worldedit.function.mask.Mask;
+import com.sk89q.worldedit.math.BlockVector3;
+import org.bukkit.Axis;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A mask that splits the footprint of a single dab into slices of roughly equal volume.
+ * <p>
+ * The cube around the dab is ordered into rows, and every slice accepts a consecutive run of them,
+ * so painting a dab once per slice offers every block exactly once. Blocks outside the cube
+ * belong to the slice of the nearest block inside it.
+ * <p>
+ * Flat footprints, such as discs, only contain blocks in the plane of their dab,
+ * so for those the rows run across the plane instead of through it.
+ *
+ * @param min    the lowest corner of the cube around the dab
+ * @param side   the side length of the cube around the dab
+ * @param slice  the index of the slice this mask accepts blocks for
+ * @param slices the amount of slices the dab is split into
+ * @param plane  the axis flat footprints are perpendicular to, or null for solid footprints
+ */
+public record SliceMask(BlockVector3 min, int side, int slice, int slices, @Nullable Axis plane) implements Mask {
+
+    /**
+     * Creates the mask of a single slice of a dab.
+     *
+     * @param center the center of the dab
+     * @param bound  the largest distance of a block of the dab footprint to its center on any axis
+     * @param slice  the index of the slice to accept blocks for
+     * @param slices the amount of slices the dab is split into
+     * @param plane  the axis flat footprints are perpendicular to, or null for solid footprints
+     * @return the slice mask
+     */
+    public static SliceMask of(BlockVector3 center, int bound, int slice, int slices, @Nullable Axis plane) {
+        var min = center.subtract(bound, bound, bound);
+        return new SliceMask(min, bound * 2 + 1, slice, slices, plane);
+    }
+
+    @Override
+    public boolean test(BlockVector3 vector) {
+        var x = Math.clamp(vector.getX() - min.getX(), 0, side - 1);
+        var y = Math.clamp(vector.getY() - min.getY(), 0, side - 1);
+        var z = Math.clamp(vector.getZ() - min.getZ(), 0, side - 1);
+        var index = plane == null ? ((long) y * side + z) * side + x : switch (plane) {
+            case X -> ((long) y * side + z) * side + x;
+            case Y -> ((long) x * side + z) * side + y;
+            case Z -> ((long) y * side + x) * side + z;
+        };
+        return index * slices / ((long) side * side * side) == slice;
+    }
+
+    @Override
+    public Mask copy() {
+        return this;
+    }
+}
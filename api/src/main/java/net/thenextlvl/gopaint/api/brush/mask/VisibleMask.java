@@ -1,46 +1,84 @@
 package net.thenextlvl.gopaint.api.brush.mask;
 
-import com.fastasyncworldedit.core.math.MutableVector3;
 import com.sk89q.worldedit.extent.Extent;
 import com.sk89q.worldedit.function.mask.Mask;
 import com.sk89q.worldedit.math.BlockVector3;
 import com.sk89q.worldedit.math.Vector3;
 
-public record VisibleMask(Extent extent, Vector3 viewPoint) implements Mask {
+/**
+ * A mask that only accepts blocks with a clear line of sight to the view point.
+ * <p>
+ * The ray starts at the corner or face center of the block facing the view point and is traversed
+ * voxel by voxel, testing every block it passes through exactly once. Compared to sampling the ray in unit steps,
+ * this no longer slips through diagonal gaps, so blocks seen only through such gaps are rejected.
+ * Blocks along the ray are looked up in an {@link OpacityCache} shared by all rays of this mask.
+ */
+public record VisibleMask(Extent extent, Vector3 viewPoint, OpacityCache cache) implements Mask {
+
+    public VisibleMask(Extent extent, Vector3 viewPoint) {
+        this(extent, viewPoint, new OpacityCache(extent));
+    }
 
     @Override
     public boolean test(BlockVector3 vector) {
+        var blockX = vector.getX();
+        var blockY = vector.getY();
+        var blockZ = vector.getZ();
 
-        var location = new MutableVector3(
-                vector.getX(),
-                vector.getY(),
-                vector.getZ()
-        );
+        var distanceX = viewPoint().getX() - blockX;
+        var distanceY = viewPoint().getY() - blockY;
+        var distanceZ = viewPoint().getZ() - blockZ;
 
-        var distanceX = viewPoint().getX() - location.getX();
-        var distanceY = viewPoint().getY() - location.getY();
-        var distanceZ = viewPoint().getZ() - location.getZ();
+        var startX = blockX + offset(distanceX);
+        var startY = blockY + offset(distanceY);
+        var startZ = blockZ + offset(distanceZ);
 
-        location.setComponents(
-                location.getX() + (distanceX > 1 ? 1 : distanceX > 0 ? 0.5 : 0),
-                location.getY() + (distanceY > 1 ? 1 : distanceY > 0 ? 0.5 : 0),
-                location.getZ() + (distanceZ > 1 ? 1 : distanceZ > 0 ? 0.5 : 0)
-        );
+        var x = (int) Math.floor(startX);
+        var y = (int) Math.floor(startY);
+        var z = (int) Math.floor(startZ);
 
-        var distance = location.distance(viewPoint());
-        for (var x = 1; x < distance; x++) {
+        var stepX = (int) Math.signum(distanceX);
+        var stepY = (int) Math.signum(distanceY);
+        var stepZ = (int) Math.signum(distanceZ);
 
-            var moveX = distanceX * (x / distance);
-            var moveY = distanceY * (x / distance);
-            var moveZ = distanceZ * (x / distance);
+        var deltaX = stepX != 0 ? Math.abs(1 / distanceX) : Double.POSITIVE_INFINITY;
+        var deltaY = stepY != 0 ? Math.abs(1 / distanceY) : Double.POSITIVE_INFINITY;
+        var deltaZ = stepZ != 0 ? Math.abs(1 / distanceZ) : Double.POSITIVE_INFINITY;
 
-            var point = location.add(moveX, moveY, moveZ).toBlockPoint();
+        var maxX = boundary(startX, x, stepX, distanceX);
+        var maxY = boundary(startY, y, stepY, distanceY);
+        var maxZ = boundary(startZ, z, stepZ, distanceZ);
 
-            if (!extent().getBlock(point).getMaterial().isAir()) return false;
+        var entry = 0d;
+        while (entry < 1) {
+            var exit = Math.min(maxX, Math.min(maxY, maxZ));
+            if (exit > entry && (x != blockX || y != blockY || z != blockZ)
+                && cache().isOpaque(x, y, z)) return false;
+            entry = exit;
+            if (maxX <= maxY && maxX <= maxZ) {
+                x += stepX;
+                maxX += deltaX;
+            } else if (maxY <= maxZ) {
+                y += stepY;
+                maxY += deltaY;
+            } else {
+                z += stepZ;
+                maxZ += deltaZ;
+            }
         }
         return true;
     }
 
+    private static double offset(double distance) {
+        return distance > 1 ? 1 : distance > 0 ? 0.5 : 0;
+    }
+
+    private static double boundary(double start, int voxel, int step, double distance) {
+        if (step > 0) return (voxel + 1 - start) / distance;
+        if (step < 0) return (voxel - start) / distance;
+        return Double.POSITIVE_INFINITY;
+    }
+
     @Override
     public Mask copy() {
         return new VisibleMask(extent(), viewPoint());
@@ -1,16 +1,13 @@
 package net.thenextlvl.gopaint.api.brush.pattern;
 
 import com.sk89q.worldedit.EditSession;
-import com.sk89q.worldedit.bukkit.BukkitAdapter;
 import com.sk89q.worldedit.entity.Player;
 import com.sk89q.worldedit.function.pattern.Pattern;
 import com.sk89q.worldedit.math.BlockVector3;
 import com.sk89q.worldedit.world.block.BaseBlock;
 import com.sk89q.worldedit.world.block.BlockState;
 import net.thenextlvl.gopaint.api.brush.setting.BrushSettings;
-import org.bukkit.Material;
-
-import java.util.Objects;
+import net.thenextlvl.gopaint.api.math.CoordinateRandom;
 
 public interface BuildPattern extends Pattern {
     BlockVector3 position();
@@ -27,19 +24,26 @@ public interface BuildPattern extends Pattern {
     }
 
     /**
-     * Picks a random block from {@link BrushSettings#getBlocks()}.
+     * Picks a random block from {@link BrushSettings#getPalette()}.
      *
      * @return The default state of the randomly picked block.
      */
     default BlockState getRandomBlockState() {
-        Material material;
-        if (settings().getBlocks().size() == 1) {
-            material = settings().getBlocks().getFirst();
-        } else {
-            var index = settings().getRandom().nextInt(settings().getBlocks().size());
-            material = settings().getBlocks().get(index);
-        }
-        var type = BukkitAdapter.asBlockType(material);
-        return Objects.requireNonNull(type).getDefaultState();
+        return settings().getPalette().getRandomState(settings().getRandom());
+    }
+
+    /**
+     * Picks a random block from {@link BrushSettings#getPalette()} for the given position,
+     * drawing from stream {@code 0} of the random source.
+     *
+     * @param random   The random source of the stroke.
+     * @param position The position of the block to pick for.
+     * @return The default state of the randomly picked block.
+     */
+    default BlockState getRandomBlockState(CoordinateRandom random, BlockVector3 position) {
+        var palette = settings().getPalette();
+        if (palette.size() == 1) return palette.getState(0);
+        var value = random.nextDouble(position.getX(), position.getY(), position.getZ(), 0);
+        return palette.getState(palette.getIndex(value));
     }
 }
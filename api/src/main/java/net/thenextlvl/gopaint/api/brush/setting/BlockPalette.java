@@ -0,0 +1,205 @@
+package net.thenextlvl.gopaint.api.brush.setting;
+
+import com.google.common.base.Preconditions;
+import com.sk89q.worldedit.bukkit.BukkitAdapter;
+import com.sk89q.worldedit.world.block.BlockState;
+import org.bukkit.Material;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+
+/**
+ * An immutable, weighted block palette compiled from a list of materials.
+ * <p>
+ * The default block state and internal ordinal of every entry are resolved once when the palette is built,
+ * so patterns can pick blocks by index without any registry lookups.
+ * Random entries are drawn in constant time with a single random number using Vose's alias method.
+ */
+public final class BlockPalette {
+    /**
+     * The palette without any entries.
+     */
+    public static final BlockPalette EMPTY = new BlockPalette(new BlockState[0], new int[0]);
+
+    private final BlockState[] states;
+    private final int[] ordinals;
+    private final int[] weights;
+    private final long totalWeight;
+
+    private final double[] probabilities;
+    private final int[] aliases;
+
+    private BlockPalette(BlockState[] states, int[] weights) {
+        this.states = states;
+        this.weights = weights;
+        this.ordinals = new int[states.length];
+        for (var i = 0; i < states.length; i++) ordinals[i] = states[i].getOrdinal();
+        this.totalWeight = Arrays.stream(weights).asLongStream().sum();
+        this.probabilities = new double[states.length];
+        this.aliases = new int[states.length];
+        buildAliasTable();
+    }
+
+    /**
+     * Compiles a palette of the default states of the given materials, in the same order, all weighted equally.
+     *
+     * @param materials the block materials of the palette
+     * @return the compiled palette
+     * @throws NullPointerException if one of the materials is not a block
+     */
+    public static BlockPalette of(List<Material> materials) {
+        return of(materials, Collections.nCopies(materials.size(), 1));
+    }
+
+    /**
+     * Compiles a palette of the default states of the given materials, in the same order.
+     *
+     * @param materials the block materials of the palette
+     * @param weights   the positive weight of every material
+     * @return the compiled palette
+     * @throws NullPointerException     if one of the materials is not a block
+     * @throws IllegalArgumentException if the amount of weights does not match or a weight is not positive
+     */
+    public static BlockPalette of(List<Material> materials, List<Integer> weights) {
+        Preconditions.checkArgument(materials.size() == weights.size(), "Every block requires a weight");
+        if (materials.isEmpty()) return EMPTY;
+        var states = new BlockState[materials.size()];
+        var compiled = new int[weights.size()];
+        for (var i = 0; i < states.length; i++) {
+            var type = BukkitAdapter.asBlockType(materials.get(i));
+            states[i] = Objects.requireNonNull(type, materials.get(i).key().asString()).getDefaultState();
+            compiled[i] = weights.get(i);
+            Preconditions.checkArgument(compiled[i] > 0, "Weights must be positive");
+        }
+        return new BlockPalette(states, compiled);
+    }
+
+    private void buildAliasTable() {
+        var size = states.length;
+        var scaled = new double[size];
+        var small = new int[size];
+        var large = new int[size];
+        var smallSize = 0;
+        var largeSize = 0;
+        for (var i = 0; i < size; i++) {
+            scaled[i] = weights[i] * (double) size / totalWeight;
+            if (scaled[i] < 1) small[smallSize++] = i;
+            else large[largeSize++] = i;
+        }
+        while (smallSize > 0 && largeSize > 0) {
+            var less = small[--smallSize];
+            var more = large[--largeSize];
+            probabilities[less] = scaled[less];
+            aliases[less] = more;
+            scaled[more] = scaled[more] + scaled[less] - 1;
+            if (scaled[more] < 1) small[smallSize++] = more;
+            else large[largeSize++] = more;
+        }
+        while (largeSize > 0) {
+            var index = large[--largeSize];
+            probabilities[index] = 1;
+            aliases[index] = index;
+        }
+        while (smallSize > 0) {
+            var index = small[--smallSize];
+            probabilities[index] = 1;
+            aliases[index] = index;
+        }
+    }
+
+    /**
+     * Returns the amount of entries in this palette.
+     *
+     * @return the size of this palette
+     */
+    public int size() {
+        return states.length;
+    }
+
+    /**
+     * Checks whether this palette has no entries.
+     *
+     * @return true if this palette is empty
+     */
+    public boolean isEmpty() {
+        return states.length == 0;
+    }
+
+    /**
+     * Returns the block state at the given index.
+     *
+     * @param index the index of the entry
+     * @return the block state of the entry
+     */
+    public BlockState getState(int index) {
+        return states[index];
+    }
+
+    /**
+     * Returns the internal ordinal of the block state at the given index.
+     *
+     * @param index the index of the entry
+     * @return the ordinal of the entry
+     * @see BlockState#getOrdinal()
+     */
+    public int getOrdinal(int index) {
+        return ordinals[index];
+    }
+
+    /**
+     * Returns the weight of the entry at the given index.
+     *
+     * @param index the index of the entry
+     * @return the weight of the entry
+     */
+    public int getWeight(int index) {
+        return weights[index];
+    }
+
+    /**
+     * Returns the probability of the entry at the given index being picked.
+     *
+     * @param index the index of the entry
+     * @return the probability of the entry, from {@code 0} to {@code 1}
+     */
+    public double getProbability(int index) {
+        return weights[index] / (double) totalWeight;
+    }
+
+    /**
+     * Picks a random entry from this palette according to the weights.
+     * Palettes with a single entry do not consume a random number.
+     *
+     * @param random the random number generator to use
+     * @return the index of the picked entry
+     */
+    public int getRandomIndex(Random random) {
+        return states.length == 1 ? 0 : getIndex(random.nextDouble());
+    }
+
+    /**
+     * Maps a uniformly distributed value to an entry of this palette according to the weights.
+     *
+     * @param value a value between {@code 0} (inclusive) and {@code 1} (exclusive)
+     * @return the index of the entry the value maps to
+     */
+    public int getIndex(double value) {
+        var scaled = value * states.length;
+        var index = Math.min((int) scaled, states.length - 1);
+        return scaled - index < probabilities[index] ? index : aliases[index];
+    }
+
+    /**
+     * Picks a random block state from this palette according to the weights.
+     * Palettes with a single entry do not consume a random number.
+     *
+     * @param random the random number generator to use
+     * @return the picked block state
+     */
+    public BlockState getRandomState(Random random) {
+        return states[getRandomIndex(random)];
+    }
+}
@@ -8,8 +8,11 @@ import com.sk89q.worldedit.entity.Player;
 import com.sk89q.worldedit.function.mask.ExistingBlockMask;
 import com.sk89q.worldedit.function.mask.Mask;
 import com.sk89q.worldedit.function.mask.MaskIntersection;
+import com.sk89q.worldedit.math.BlockVector3;
 import net.thenextlvl.gopaint.api.brush.PatternBrush;
+import net.thenextlvl.gopaint.api.brush.mask.DepthBufferMask;
 import net.thenextlvl.gopaint.api.brush.mask.VisibleMask;
+import net.thenextlvl.gopaint.api.math.CoordinateRandom;
 import net.thenextlvl.gopaint.api.model.SurfaceMode;
 import org.bukkit.Axis;
 import org.bukkit.Material;
@@ -46,6 +49,20 @@ public interface BrushSettings {
      */
     List<Material> getBlocks();
 
+    /**
+     * Returns the weights of the blocks used by the brush settings.
+     *
+     * @return the positive weight of every block, in the same order as {@link #getBlocks()}
+     */
+    List<Integer> getWeights();
+
+    /**
+     * Returns the compiled palette of the blocks used by the brush settings.
+     *
+     * @return the block palette, in the same order as {@link #getBlocks()}
+     */
+    BlockPalette getPalette();
+
     /**
      * Retrieves the mask material used by the brush settings.
      *
@@ -78,12 +95,25 @@ public interface BrushSettings {
 
     default @Nullable Mask getSurfaceMask(Player player) {
         return switch (getSurfaceMode()) {
-            case VISIBLE -> new VisibleMask(player.getWorld(), player.getLocation().add(0, 1.5, 0));
+            case VISIBLE, DEPTH -> new VisibleMask(player.getWorld(), player.getLocation().add(0, 1.5, 0));
             case EXPOSED -> new SurfaceMask(player.getWorld());
             case DISABLED -> null;
         };
     }
 
+    /**
+     * Retrieves the surface mask for a stroke at the given position according to the brush settings.
+     *
+     * @param player   The player painting the stroke.
+     * @param position The center of the stroke.
+     * @return The surface mask, or null if the surface mode is disabled
+     */
+    default @Nullable Mask getSurfaceMask(Player player, BlockVector3 position) {
+        if (!getSurfaceMode().equals(SurfaceMode.DEPTH)) return getSurfaceMask(player);
+        return new DepthBufferMask(player.getWorld(), player.getLocation().add(0, 1.5, 0),
+                position, (getBrushSize() + 1) / 2);
+    }
+
     /**
      * Returns the surface mode used by the brush settings.
      *
@@ -153,4 +183,16 @@ public interface BrushSettings {
      * @return a Random instance
      */
     Random getRandom();
+
+    /**
+     * Creates the coordinate-hashed random source for a new stroke, seeded from {@link #getRandom()}.
+     * <p>
+     * Patterns should draw from the stroke's random source instead of {@link #getRandom()},
+     * which is shared and depends on the order blocks are visited in.
+     *
+     * @return a new random source
+     */
+    default CoordinateRandom createStrokeRandom() {
+        return new CoordinateRandom(getRandom().nextLong());
+    }
 }
@@ -10,6 +10,7 @@ import org.bukkit.inventory.ItemStack;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Range;
 
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -31,6 +32,21 @@ public interface PlayerBrushSettings extends BrushSettings {
      */
     void setEnabled(boolean enabled);
 
+    /**
+     * Checks whether drag painting is enabled.
+     * While dragging, the brush paints continuously along the aim of the player as long as right-click is held.
+     *
+     * @return true if drag painting is enabled, false if every click paints a single stroke
+     */
+    boolean isDragEnabled();
+
+    /**
+     * Enables or disables drag painting.
+     *
+     * @param enabled true to enable drag painting, false to disable it
+     */
+    void setDragEnabled(boolean enabled);
+
     /**
      * Adds a block to the block palette.
      *
@@ -138,11 +154,30 @@ public interface PlayerBrushSettings extends BrushSettings {
     void setAxis(Axis axis);
 
     /**
-     * Sets the list of blocks used by the brush settings.
+     * Sets the list of blocks used by the brush settings, all weighted equally.
      *
      * @param blocks The list of blocks to set.
      */
-    void setBlocks(List<Material> blocks);
+    default void setBlocks(List<Material> blocks) {
+        setBlocks(blocks, Collections.nCopies(blocks.size(), 1));
+    }
+
+    /**
+     * Sets the list of blocks used by the brush settings and their weights.
+     *
+     * @param blocks  The list of blocks to set.
+     * @param weights The positive weight of every block.
+     */
+    void setBlocks(List<Material> blocks, List<Integer> weights);
+
+    /**
+     * Sets the weight of a block in the block palette.
+     *
+     * @param slot   The slot index in the block palette of the block.
+     * @param weight The weight of the block.
+     * @see PluginConfig.BrushConfig#maxBlockWeight()
+     */
+    void setWeight(int slot, @Range(from = 1, to = Integer.MAX_VALUE) int weight);
 
     /**
      * Sets the brush for the player's brush settings.
@@ -0,0 +1,17 @@
+package net.thenextlvl.gopaint.api.math;
+
+/**
+ * Represents an operation that accepts a vertical run of blocks within a single column.
+ */
+@FunctionalInterface
+public interface ColumnConsumer {
+    /**
+     * Performs this operation on the given column.
+     *
+     * @param x    the x-coordinate of the column
+     * @param z    the z-coordinate of the column
+     * @param minY the lowest y-coordinate of the run, inclusive
+     * @param maxY the highest y-coordinate of the run, inclusive
+     */
+    void accept(int x, int z, int minY, int maxY);
+}
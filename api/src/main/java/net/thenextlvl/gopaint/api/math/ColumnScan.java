@@ -0,0 +1,54 @@
+package net.thenextlvl.gopaint.api.math;
+
+import com.sk89q.worldedit.extent.Extent;
+
+/**
+ * Walks columns of an extent top-down, reading every block exactly once.
+ * <p>
+ * Surface brushes can use a column scan to decide on blocks by their depth below the surface,
+ * instead of reading the blocks above every candidate again.
+ */
+public final class ColumnScan {
+    /**
+     * Represents an operation that accepts a movement-blocking block of a column and its cover.
+     */
+    @FunctionalInterface
+    public interface CoverConsumer {
+        /**
+         * Performs this operation on the given block.
+         *
+         * @param y     the y-coordinate of the block
+         * @param cover the amount of consecutive movement-blocking blocks directly above the block,
+         *              capped at the scanned depth
+         */
+        void accept(int y, int cover);
+    }
+
+    /**
+     * Walks a run of a column top-down and reports every movement-blocking block within the run
+     * together with the amount of consecutive movement-blocking blocks directly above it.
+     * <p>
+     * The scan starts {@code depth} blocks above the run, so every block of the run and at most {@code depth}
+     * blocks above it are read once. Blocks outside the height of the extent count as not movement-blocking.
+     *
+     * @param extent   the extent to read the blocks from
+     * @param x        the x-coordinate of the column
+     * @param z        the z-coordinate of the column
+     * @param minY     the lowest y-coordinate of the run, inclusive
+     * @param maxY     the highest y-coordinate of the run, inclusive
+     * @param depth    the largest cover to count
+     * @param consumer the visitor receiving the movement-blocking blocks of the run
+     */
+    public static void scan(Extent extent, int x, int z, int minY, int maxY, int depth, CoverConsumer consumer) {
+        var bottom = Math.max(minY, extent.getMinY());
+        var cover = 0;
+        for (var y = Math.min(maxY + depth, extent.getMaxY()); y >= bottom; y--) {
+            if (!extent.getBlock(x, y, z).getMaterial().isMovementBlocker()) {
+                cover = 0;
+                continue;
+            }
+            if (y <= maxY) consumer.accept(y, cover);
+            cover = Math.min(cover + 1, depth);
+        }
+    }
+}
@@ -71,4 +71,35 @@ public class ConnectedBlocks {
 
         return connected.stream();
     }
+
+    /**
+     * Returns a stream of connected blocks starting from a given location, limited to a sphere around it.
+     * Only blocks of the same type as the start block are considered.
+     * Unlike {@link #getConnectedBlocks(Extent, BlockVector3, Set)} the sphere is never materialized.
+     *
+     * @param world   the world to check the blocks in
+     * @param vector3 the starting location and center of the sphere
+     * @param radius  the radius of the sphere
+     * @return a stream of connected blocks
+     * @see #forEachConnectedBlock(Extent, BlockVector3, double, IntTriConsumer)
+     */
+    public static Stream<BlockVector3> getConnectedBlocks(Extent world, BlockVector3 vector3, double radius) {
+        var builder = Stream.<BlockVector3>builder();
+        forEachConnectedBlock(world, vector3, radius, (x, y, z) -> builder.add(BlockVector3.at(x, y, z)));
+        return builder.build();
+    }
+
+    /**
+     * Visits all connected blocks starting from a given location, limited to a sphere around it.
+     * Only blocks of the same type as the start block are considered.
+     *
+     * @param world    the world to check the blocks in
+     * @param vector3  the starting location and center of the sphere
+     * @param radius   the radius of the sphere
+     * @param consumer the visitor receiving the absolute block coordinates
+     * @see FloodFill
+     */
+    public static void forEachConnectedBlock(Extent world, BlockVector3 vector3, double radius, IntTriConsumer consumer) {
+        FloodFill.fill(world, vector3, radius, consumer);
+    }
 }
@@ -0,0 +1,87 @@
+package net.thenextlvl.gopaint.api.math;
+
+/**
+ * A counter-based random source that derives every number from a seed, a block position and a stream.
+ * <p>
+ * Numbers are computed by hashing their inputs with the SplitMix64 finalizer instead of advancing a shared state,
+ * so a random source can be used from any number of threads without contention,
+ * and the numbers drawn for a block do not depend on the order or parallelism in which blocks are visited.
+ * Drawing with the same seed, position and stream always yields the same number.
+ * <p>
+ * Streams separate independent draws for the same block, for example a placement chance and a block choice.
+ */
+public final class CoordinateRandom {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final double DOUBLE_UNIT = 0x1.0p-53;
+
+    private final long seed;
+
+    /**
+     * Creates a new random source with the given seed.
+     *
+     * @param seed the seed of the random source
+     */
+    public CoordinateRandom(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Returns the seed of this random source.
+     *
+     * @return the seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Returns a uniformly distributed {@code long} for the given block and stream.
+     *
+     * @param x      the x-coordinate of the block
+     * @param y      the y-coordinate of the block
+     * @param z      the z-coordinate of the block
+     * @param stream the stream to draw from
+     * @return a random {@code long}
+     */
+    public long nextLong(int x, int y, int z, int stream) {
+        var hash = mix(seed + GOLDEN_GAMMA * (x + 1));
+        hash = mix(hash + GOLDEN_GAMMA * (y + 1));
+        hash = mix(hash + GOLDEN_GAMMA * (z + 1));
+        return mix(hash + GOLDEN_GAMMA * (stream + 1));
+    }
+
+    /**
+     * Returns a uniformly distributed {@code double} between {@code 0} (inclusive) and {@code 1} (exclusive)
+     * for the given block and stream.
+     *
+     * @param x      the x-coordinate of the block
+     * @param y      the y-coordinate of the block
+     * @param z      the z-coordinate of the block
+     * @param stream the stream to draw from
+     * @return a random {@code double}
+     */
+    public double nextDouble(int x, int y, int z, int stream) {
+        return (nextLong(x, y, z, stream) >>> 11) * DOUBLE_UNIT;
+    }
+
+    /**
+     * Returns a uniformly distributed {@code int} between {@code 0} (inclusive) and the bound (exclusive)
+     * for the given block and stream.
+     *
+     * @param x      the x-coordinate of the block
+     * @param y      the y-coordinate of the block
+     * @param z      the z-coordinate of the block
+     * @param stream the stream to draw from
+     * @param bound  the exclusive upper bound, must be positive
+     * @return a random {@code int}
+     */
+    public int nextInt(int x, int y, int z, int stream, int bound) {
+        return (int) (((nextLong(x, y, z, stream) >>> 32) * bound) >>> 32);
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+}
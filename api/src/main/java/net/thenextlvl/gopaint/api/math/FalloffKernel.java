@@ -0,0 +1,78 @@
+package net.thenextlvl.gopaint.api.math;
+
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * A stroke-scoped table of falloff rates indexed by the squared distance to the center of a stroke.
+ * <p>
+ * A block is skipped if a uniformly random number does not exceed its rate, so a rate of {@code 0} or less
+ * always places and a rate of {@code 1} or more never does. Since block offsets are integers, every squared
+ * distance is an integer, and the rate function is evaluated once per distinct distance instead of once per block.
+ * Distances beyond the table are computed directly.
+ */
+public final class FalloffKernel {
+    private final DoubleUnaryOperator rate;
+    private final double[] rates;
+
+    /**
+     * Creates a new falloff kernel.
+     *
+     * @param limit the largest squared distance to precompute
+     * @param rate  the rate at a given distance to the center
+     */
+    public FalloffKernel(int limit, DoubleUnaryOperator rate) {
+        this.rate = rate;
+        this.rates = new double[Math.max(0, limit) + 1];
+        for (var distance = 0; distance < rates.length; distance++) {
+            rates[distance] = rate.applyAsDouble(Math.sqrt(distance));
+        }
+    }
+
+    /**
+     * Creates a linear falloff kernel, rising from {@code 0} at {@code size * (100 - strength) / 100}
+     * to {@code 1} at {@code size}.
+     *
+     * @param size     the distance at which the rate reaches {@code 1}
+     * @param strength the falloff strength, from {@code 0} to {@code 100}
+     * @param radius   the radius of the stroke, up to which distances are precomputed
+     * @return the falloff kernel
+     */
+    public static FalloffKernel linear(double size, int strength, double radius) {
+        var start = size * ((100d - strength) / 100d);
+        return new FalloffKernel(limit(radius), distance -> (distance - start) / (size - start));
+    }
+
+    /**
+     * Returns the rate at the given squared distance to the center.
+     *
+     * @param distanceSquared the squared distance to the center
+     * @return the rate at the given distance
+     */
+    public double getRate(int distanceSquared) {
+        if (distanceSquared < rates.length) return rates[distanceSquared];
+        return rate.applyAsDouble(Math.sqrt(distanceSquared));
+    }
+
+    /**
+     * Returns the rate at the given block.
+     *
+     * @param centerX the x-coordinate of the center
+     * @param centerY the y-coordinate of the center
+     * @param centerZ the z-coordinate of the center
+     * @param x       the x-coordinate of the block
+     * @param y       the y-coordinate of the block
+     * @param z       the z-coordinate of the block
+     * @return the rate at the given block
+     */
+    public double getRate(int centerX, int centerY, int centerZ, int x, int y, int z) {
+        var distanceX = x - centerX;
+        var distanceY = y - centerY;
+        var distanceZ = z - centerZ;
+        return getRate(distanceX * distanceX + distanceY * distanceY + distanceZ * distanceZ);
+    }
+
+    private static int limit(double radius) {
+        var bound = Math.max(0, radius) + 1;
+        return (int) Math.min(Math.ceil(bound * bound), 1 << 16);
+    }
+}
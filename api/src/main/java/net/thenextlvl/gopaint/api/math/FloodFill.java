@@ -0,0 +1,156 @@
+package net.thenextlvl.gopaint.api.math;
+
+import com.sk89q.worldedit.extent.Extent;
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldedit.world.registry.BlockMaterial;
+
+/**
+ * A scanline flood fill limited to a sphere around the start block.
+ * <p>
+ * Blocks are tracked by their index in the bounding box of the sphere, using bitsets for visited and
+ * already tested blocks and an {@code int} ring buffer of span seeds as queue.
+ * Every block in the sphere is read from the world at most once and the sphere itself is never materialized.
+ */
+public final class FloodFill {
+    private final Extent world;
+    private final BlockMaterial material;
+
+    private final int originX, originY, originZ;
+    private final int limit, bound, side;
+
+    private final long[] visited;
+    private final long[] tested;
+    private final long[] matching;
+
+    private int[] queue = new int[256];
+    private int head, tail;
+
+    private FloodFill(Extent world, BlockVector3 start, double radius) {
+        this.world = world;
+        this.material = world.getFullBlock(start).getMaterial();
+        this.limit = Math.max(0, Sphere.getDistanceLimit(radius));
+        this.bound = Sphere.sqrt(limit);
+        this.side = bound * 2 + 1;
+        this.originX = start.getX() - bound;
+        this.originY = start.getY() - bound;
+        this.originZ = start.getZ() - bound;
+        var words = (int) (((long) side * side * side + 63) >>> 6);
+        this.visited = new long[words];
+        this.tested = new long[words];
+        this.matching = new long[words];
+    }
+
+    /**
+     * Visits all blocks connected to the start block that are of the same type and within the given radius.
+     * The start block itself is always visited.
+     *
+     * @param world    the world to check the blocks in
+     * @param start    the starting location and center of the sphere
+     * @param radius   the radius of the sphere
+     * @param consumer the visitor receiving the absolute block coordinates
+     * @see Sphere#isInRadius(BlockVector3, double, int, int, int)
+     */
+    public static void fill(Extent world, BlockVector3 start, double radius, IntTriConsumer consumer) {
+        new FloodFill(world, start, radius).fill(consumer);
+    }
+
+    private void fill(IntTriConsumer consumer) {
+        var start = index(bound, bound, bound);
+        set(tested, start);
+        set(matching, start);
+        offer(start);
+
+        while (head != tail) {
+            var seed = poll();
+            if (get(visited, seed)) continue;
+
+            var x = seed % side;
+            var y = seed / (side * side);
+            var z = (seed / side) % side;
+            var row = seed - x;
+
+            var extent = getRowExtent(y, z);
+            var minX = x;
+            var maxX = x;
+            while (minX > bound - extent && accept(row + minX - 1, minX - 1, y, z)) minX--;
+            while (maxX < bound + extent && accept(row + maxX + 1, maxX + 1, y, z)) maxX++;
+
+            for (var i = minX; i <= maxX; i++) {
+                set(visited, row + i);
+                consumer.accept(originX + i, originY + y, originZ + z);
+            }
+
+            scan(minX, maxX, y - 1, z);
+            scan(minX, maxX, y + 1, z);
+            scan(minX, maxX, y, z - 1);
+            scan(minX, maxX, y, z + 1);
+        }
+    }
+
+    private void scan(int minX, int maxX, int y, int z) {
+        if (y < 0 || y >= side || z < 0 || z >= side) return;
+        var extent = getRowExtent(y, z);
+        if (extent < 0) return;
+        var from = Math.max(minX, bound - extent);
+        var to = Math.min(maxX, bound + extent);
+        var row = index(0, y, z);
+        var inSpan = false;
+        for (var x = from; x <= to; x++) {
+            if (accept(row + x, x, y, z)) {
+                if (!inSpan) offer(row + x);
+                inSpan = true;
+            } else inSpan = false;
+        }
+    }
+
+    private boolean accept(int index, int x, int y, int z) {
+        if (get(visited, index)) return false;
+        if (get(tested, index)) return get(matching, index);
+        set(tested, index);
+        var block = world.getBlock(originX + x, originY + y, originZ + z);
+        if (!block.getMaterial().equals(material)) return false;
+        set(matching, index);
+        return true;
+    }
+
+    private int getRowExtent(int y, int z) {
+        var distanceY = y - bound;
+        var distanceZ = z - bound;
+        var remaining = limit - distanceY * distanceY - distanceZ * distanceZ;
+        return remaining < 0 ? -1 : Sphere.sqrt(remaining);
+    }
+
+    private int index(int x, int y, int z) {
+        return (y * side + z) * side + x;
+    }
+
+    private void offer(int index) {
+        queue[tail] = index;
+        tail = (tail + 1) & (queue.length - 1);
+        if (tail == head) grow();
+    }
+
+    private int poll() {
+        var index = queue[head];
+        head = (head + 1) & (queue.length - 1);
+        return index;
+    }
+
+    private void grow() {
+        var grown = new int[queue.length << 1];
+        var length = queue.length - head;
+        System.arraycopy(queue, head, grown, 0, length);
+        System.arraycopy(queue, 0, grown, length, head);
+        head = 0;
+        tail = queue.length;
+        queue = grown;
+    }
+
+    private static boolean get(long[] bits, int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    private static void set(long[] bits, int index) {
+        bits[index >>> 6] |= 1L << index;
+    }
+}
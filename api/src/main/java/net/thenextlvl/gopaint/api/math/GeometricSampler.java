@@ -0,0 +1,55 @@
+package net.thenextlvl.gopaint.api.math;
+
+import com.google.common.base.Preconditions;
+
+import java.util.SplittableRandom;
+
+/**
+ * Selects elements of a sequence independently with a fixed probability by skipping ahead.
+ * <p>
+ * Instead of rolling once per element, the sampler draws the geometrically distributed amount of elements
+ * to skip until the next selected one, so the cost is proportional to the amount of selected elements.
+ * The selection has exactly the distribution of independent per-element rolls.
+ */
+public final class GeometricSampler {
+    private final SplittableRandom random;
+    private final double logComplement;
+
+    /**
+     * Creates a new geometric sampler.
+     *
+     * @param seed        the seed of the skips
+     * @param probability the probability of an element being selected, greater than {@code 0}
+     */
+    public GeometricSampler(long seed, double probability) {
+        Preconditions.checkArgument(probability > 0 && probability <= 1, "Probability must be in (0, 1]");
+        this.random = new SplittableRandom(seed);
+        this.logComplement = probability < 1 ? Math.log1p(-probability) : Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Returns the amount of elements to skip before the next selected element.
+     *
+     * @return the amount of elements to skip
+     */
+    public int nextSkip() {
+        if (logComplement == Double.NEGATIVE_INFINITY) return 0;
+        var skip = Math.floor(Math.log(1 - random.nextDouble()) / logComplement);
+        return (int) Math.min(skip, Integer.MAX_VALUE >> 1);
+    }
+
+    /**
+     * Visits the selected offsets of the given table, translated by the given origin.
+     *
+     * @param table    the table to sample from
+     * @param originX  the x-coordinate of the origin
+     * @param originY  the y-coordinate of the origin
+     * @param originZ  the z-coordinate of the origin
+     * @param consumer the visitor receiving the absolute block coordinates of the selected offsets
+     */
+    public void forEach(OffsetTable table, int originX, int originY, int originZ, IntTriConsumer consumer) {
+        for (var index = nextSkip(); index < table.size(); index += 1 + nextSkip()) {
+            consumer.accept(originX + table.getX(index), originY + table.getY(index), originZ + table.getZ(index));
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package net.thenextlvl.gopaint.api.math;
+
+import com.sk89q.worldedit.math.BlockVector3;
+import net.thenextlvl.gopaint.api.brush.setting.BlockPalette;
+import org.bukkit.Axis;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A stroke-scoped table of gradient bands indexed by the coordinate along the axis of a gradient.
+ * <p>
+ * The gradient runs across the extent of a stroke, from its lowest to its highest coordinate along the axis,
+ * and passes through every entry of a palette in order. The fractional band of every coordinate is computed once
+ * per stroke, so picking the entry of a block takes a single table read and a single random number for the jitter.
+ * <p>
+ * Each entry of a weighted palette occupies a share of the gradient proportional to its weight.
+ * With equal weights all bands have the same width. Coordinates beyond the table are computed directly.
+ */
+public final class GradientBands {
+    private final Axis axis;
+    private final double start;
+    private final double length;
+    private final double mixing;
+    private final int size;
+    private final double @Nullable [] stops;
+
+    private final int min;
+    private final double[] bands;
+
+    /**
+     * Creates a new gradient band table.
+     *
+     * @param palette the palette the gradient passes through
+     * @param axis    the axis the gradient runs along
+     * @param start   the coordinate at which the gradient starts
+     * @param length  the length of the gradient, must be positive
+     * @param min     the lowest coordinate to precompute
+     * @param max     the highest coordinate to precompute
+     * @param mixing  the jitter applied to the band of every block, in bands
+     */
+    public GradientBands(BlockPalette palette, Axis axis, double start, double length, int min, int max, double mixing) {
+        this.axis = axis;
+        this.start = start;
+        this.length = length;
+        this.mixing = mixing;
+        this.size = palette.size();
+        this.stops = computeStops(palette);
+        this.min = min;
+        this.bands = new double[Math.max(0, max - min + 1)];
+        for (var i = 0; i < bands.length; i++) bands[i] = computeBand(min + i);
+    }
+
+    /**
+     * Creates the gradient band table of a stroke.
+     *
+     * @param palette        the palette the gradient passes through
+     * @param axis           the axis the gradient runs along
+     * @param position       the center of the stroke
+     * @param brushSize      the size of the brush
+     * @param mixingStrength the mixing strength, from {@code 0} to {@code 100}
+     * @return the gradient band table
+     */
+    public static GradientBands of(
+            BlockPalette palette, Axis axis, BlockVector3 position, int brushSize, int mixingStrength
+    ) {
+        var center = coordinate(axis, position.getX(), position.getY(), position.getZ());
+        var radius = (brushSize + 1) / 2;
+        return new GradientBands(palette, axis, center - (brushSize / 2d), brushSize,
+                center - radius, center + radius, mixingStrength / 100d);
+    }
+
+    /**
+     * Returns the palette index of the given block.
+     *
+     * @param x      the x-coordinate of the block
+     * @param y      the y-coordinate of the block
+     * @param z      the z-coordinate of the block
+     * @param random a uniformly random number between {@code 0} (inclusive) and {@code 1} (exclusive)
+     * @return the palette index of the block
+     */
+    public int getIndex(int x, int y, int z, double random) {
+        if (size <= 1) return 0;
+        var coordinate = coordinate(axis, x, y, z);
+        var offset = coordinate - min;
+        var band = offset >= 0 && offset < bands.length ? bands[offset] : computeBand(coordinate);
+        return Math.clamp((int) (band + (random * 2 - 1) * mixing), 0, size - 1);
+    }
+
+    private static int coordinate(Axis axis, int x, int y, int z) {
+        return switch (axis) {
+            case X -> x;
+            case Y -> y;
+            case Z -> z;
+        };
+    }
+
+    private double computeBand(int coordinate) {
+        if (stops == null) return (coordinate - start) / length * size;
+        var position = (coordinate - start) / length;
+        var band = 0;
+        while (band < size - 1 && stops[band + 1] <= position) band++;
+        return band + (position - stops[band]) / (stops[band + 1] - stops[band]);
+    }
+
+    private static double @Nullable [] computeStops(BlockPalette palette) {
+        var uniform = true;
+        var total = 0L;
+        for (var i = 0; i < palette.size(); i++) {
+            uniform &= palette.getWeight(i) == palette.getWeight(0);
+            total += palette.getWeight(i);
+        }
+        if (uniform) return null;
+        var stops = new double[palette.size() + 1];
+        var cumulative = 0L;
+        for (var i = 0; i < palette.size(); i++) {
+            cumulative += palette.getWeight(i);
+            stops[i + 1] = cumulative / (double) total;
+        }
+        return stops;
+    }
+}
@@ -18,6 +18,7 @@
  */
 package net.thenextlvl.gopaint.api.math;
 
+import com.sk89q.worldedit.extent.Extent;
 import net.thenextlvl.gopaint.api.model.Block;
 
 public class Height {
@@ -44,6 +45,32 @@ public class Height {
         }
     }
 
+    /**
+     * Returns the nearest non-empty block height above or below the given block.
+     *
+     * @param world the world to check the blocks in
+     * @param x     the x-coordinate of the block
+     * @param y     the y-coordinate of the block
+     * @param z     the z-coordinate of the block
+     * @return the y-coordinate of the nearest non-empty block
+     * @see HeightMap#getHeight(int, int, int)
+     */
+    public static int getNearestNonEmptyBlock(Extent world, int x, int y, int z) {
+        if (world.getBlock(x, y, z).isAir()) {
+            for (var i = y - 1; i >= world.getMinY(); i--) {
+                if (world.getBlock(x, i, z).isAir()) continue;
+                return i + 1;
+            }
+            return world.getMinY();
+        } else {
+            for (var i = y + 1; i <= world.getMaxY(); i++) {
+                if (!world.getBlock(x, i, z).isAir()) continue;
+                return i;
+            }
+            return world.getMaxY();
+        }
+    }
+
     /**
      * Calculates the average height difference fracture of a block within a given distance.
      *
@@ -107,4 +134,69 @@ public class Height {
 
         return (maxHeightDiff2 + maxHeightDiff) / (distance * 2d);
     }
+
+    /**
+     * Calculates the average height difference fracture of a block within a given distance.
+     *
+     * @param heightMap the height map to look up the surrounding heights in
+     * @param x         the x-coordinate of the block
+     * @param y         the y-coordinate of the block
+     * @param z         the z-coordinate of the block
+     * @param height    the height to compare against
+     * @param distance  the distance to consider when calculating the average height difference fracture
+     * @return the average height difference fracture of the block within the given distance
+     * @see #getAverageHeightDiffFracture(Block, int, int)
+     */
+    public static double getAverageHeightDiffFracture(HeightMap heightMap, int x, int y, int z, int height, int distance) {
+        double totalHeight = 0;
+        totalHeight += Math.abs(heightMap.getHeight(x + distance, y, z - distance)) - height;
+        totalHeight += Math.abs(heightMap.getHeight(x + distance, y, z + distance)) - height;
+        totalHeight += Math.abs(heightMap.getHeight(x - distance, y, z + distance)) - height;
+        totalHeight += Math.abs(heightMap.getHeight(x - distance, y, z - distance)) - height;
+        totalHeight += Math.abs(heightMap.getHeight(x, y, z - distance)) - height;
+        totalHeight += Math.abs(heightMap.getHeight(x, y, z + distance)) - height;
+        totalHeight += Math.abs(heightMap.getHeight(x - distance, y, z)) - height;
+        totalHeight += Math.abs(heightMap.getHeight(x + distance, y, z)) - height;
+        return (totalHeight / 8d) / distance;
+    }
+
+    /**
+     * Calculates the average height difference fracture of a column over the full window within a given distance.
+     *
+     * @param heights  the summed-area table of the surface heights
+     * @param x        the x-coordinate of the column
+     * @param z        the z-coordinate of the column
+     * @param height   the height to compare against
+     * @param distance the distance to consider when calculating the average height difference fracture
+     * @return the average height difference fracture of the column within the given distance
+     * @see SummedAreaTable#ofHeights(HeightMap, com.sk89q.worldedit.math.BlockVector3, int)
+     */
+    public static double getAverageHeightDiffFracture(SummedAreaTable heights, int x, int z, int height, int distance) {
+        return (heights.getAverage(x, z, distance) - height) / distance;
+    }
+
+    /**
+     * Calculates the average height difference angle of a block within a given distance.
+     *
+     * @param heightMap the height map to look up the surrounding heights in
+     * @param x         the x-coordinate of the block
+     * @param y         the y-coordinate of the block
+     * @param z         the z-coordinate of the block
+     * @param distance  the distance to consider when calculating the average height difference angle
+     * @return the average height difference angle of the block within the given distance
+     * @see #getAverageHeightDiffAngle(Block, int)
+     */
+    public static double getAverageHeightDiffAngle(HeightMap heightMap, int x, int y, int z, int distance) {
+        var maxHeightDiff = Math.max(
+                Math.abs(heightMap.getHeight(x + distance, y, z - distance)
+                         - heightMap.getHeight(x - distance, y, z + distance)),
+                Math.abs(heightMap.getHeight(x + distance, y, z + distance)
+                         - heightMap.getHeight(x - distance, y, z - distance))
+        );
+        maxHeightDiff = Math.max(maxHeightDiff, Math.abs(heightMap.getHeight(x + distance, y, z)
+                                                         - heightMap.getHeight(x - distance, y, z)));
+        maxHeightDiff = Math.max(maxHeightDiff, Math.abs(heightMap.getHeight(x, y, z - distance)
+                                                         - heightMap.getHeight(x, y, z + distance)));
+        return maxHeightDiff / (double) distance;
+    }
 }
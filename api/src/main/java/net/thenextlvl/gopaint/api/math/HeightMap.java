@@ -0,0 +1,126 @@
+package net.thenextlvl.gopaint.api.math;
+
+import com.sk89q.worldedit.extent.Extent;
+import com.sk89q.worldedit.math.BlockVector3;
+
+import java.util.Arrays;
+
+/**
+ * A stroke-scoped cache of {@link Height#getNearestNonEmptyBlock(Extent, int, int, int) surface heights}.
+ * <p>
+ * Every column of the covered area remembers the range of heights that resolve to the same surface,
+ * so repeated queries on the same column are answered without reading the world again.
+ * Queries above or below the known range only scan until they reach it, and columns outside the area
+ * fall back to a direct scan. Results are always identical to an uncached lookup of the same world state.
+ * <p>
+ * Height maps are not thread-safe and should not outlive the stroke they were created for.
+ */
+public final class HeightMap {
+    private final Extent world;
+    private final int minX, minZ, side;
+
+    private final int[] heights;
+    private final int[] lower;
+    private final int[] upper;
+
+    /**
+     * Creates a new height map covering all columns within the given radius around the center.
+     *
+     * @param world  the world to read the blocks from
+     * @param center the center of the covered area
+     * @param radius the horizontal radius of the covered area
+     */
+    public HeightMap(Extent world, BlockVector3 center, int radius) {
+        var bound = Math.max(0, radius);
+        this.world = world;
+        this.side = bound * 2 + 1;
+        this.minX = center.getX() - bound;
+        this.minZ = center.getZ() - bound;
+        this.heights = new int[side * side];
+        this.lower = new int[side * side];
+        this.upper = new int[side * side];
+        Arrays.fill(lower, Integer.MAX_VALUE);
+        Arrays.fill(upper, Integer.MIN_VALUE);
+    }
+
+    /**
+     * Returns the nearest non-empty block height above or below the given block.
+     *
+     * @param x the x-coordinate of the block
+     * @param y the y-coordinate of the block
+     * @param z the z-coordinate of the block
+     * @return the y-coordinate of the nearest non-empty block
+     * @see Height#getNearestNonEmptyBlock(Extent, int, int, int)
+     */
+    public int getHeight(int x, int y, int z) {
+        var column = getColumn(x, z);
+        if (column == -1) return Height.getNearestNonEmptyBlock(world, x, y, z);
+
+        var low = lower[column];
+        var high = upper[column];
+        if (low <= y && y <= high) return heights[column];
+
+        if (world.getBlock(x, y, z).isAir()) {
+            for (var i = y - 1; i >= world.getMinY(); i--) {
+                if (i == high) return extend(column, low, y);
+                if (world.getBlock(x, i, z).isAir()) continue;
+                return store(column, i, y, i + 1);
+            }
+            return store(column, world.getMinY(), y, world.getMinY());
+        } else {
+            for (var i = y + 1; i <= world.getMaxY(); i++) {
+                if (i == low) return extend(column, y, high);
+                if (!world.getBlock(x, i, z).isAir()) continue;
+                return store(column, y, i, i);
+            }
+            return store(column, y, world.getMaxY(), world.getMaxY());
+        }
+    }
+
+    /**
+     * Returns the lowest height known to resolve to the same surface as the given block.
+     * Only meaningful directly after {@link #getHeight(int, int, int) looking up} the block.
+     *
+     * @param x the x-coordinate of the block
+     * @param y the y-coordinate of the block
+     * @param z the z-coordinate of the block
+     * @return the lower bound of the surface range, or {@code y} if unknown
+     */
+    int getLowerBound(int x, int y, int z) {
+        var column = getColumn(x, z);
+        return column != -1 && lower[column] <= y && y <= upper[column] ? lower[column] : y;
+    }
+
+    /**
+     * Returns the highest height known to resolve to the same surface as the given block.
+     * Only meaningful directly after {@link #getHeight(int, int, int) looking up} the block.
+     *
+     * @param x the x-coordinate of the block
+     * @param y the y-coordinate of the block
+     * @param z the z-coordinate of the block
+     * @return the upper bound of the surface range, or {@code y} if unknown
+     */
+    int getUpperBound(int x, int y, int z) {
+        var column = getColumn(x, z);
+        return column != -1 && lower[column] <= y && y <= upper[column] ? upper[column] : y;
+    }
+
+    private int getColumn(int x, int z) {
+        var localX = x - minX;
+        var localZ = z - minZ;
+        if (localX < 0 || localZ < 0 || localX >= side || localZ >= side) return -1;
+        return localZ * side + localX;
+    }
+
+    private int extend(int column, int low, int high) {
+        lower[column] = low;
+        upper[column] = high;
+        return heights[column];
+    }
+
+    private int store(int column, int low, int high, int height) {
+        lower[column] = low;
+        upper[column] = high;
+        return heights[column] = height;
+    }
+}
@@ -0,0 +1,17 @@
+package net.thenextlvl.gopaint.api.math;
+
+/**
+ * Represents an operation that accepts a block position as three primitive {@code int} coordinates.
+ * This is the primitive specialization used to stream block positions without allocating vectors.
+ */
+@FunctionalInterface
+public interface IntTriConsumer {
+    /**
+     * Performs this operation on the given block position.
+     *
+     * @param x the x-coordinate
+     * @param y the y-coordinate
+     * @param z the z-coordinate
+     */
+    void accept(int x, int y, int z);
+}
@@ -0,0 +1,102 @@
+package net.thenextlvl.gopaint.api.math;
+
+import java.util.Arrays;
+
+/**
+ * A set of primitive {@code long} keys, using open addressing with linear probing.
+ * <p>
+ * Keys are stored unboxed in a single array, which is grown at half load. Sets are not thread-safe.
+ */
+public final class LongSet {
+    private static final long EMPTY = 0;
+
+    private long[] keys;
+    private boolean containsEmpty;
+    private int size;
+
+    /**
+     * Creates a new set with room for the given amount of keys before it grows.
+     *
+     * @param capacity the expected amount of keys
+     */
+    public LongSet(int capacity) {
+        this.keys = new long[Integer.highestOneBit(Math.max(4, capacity) * 2 - 1) << 1];
+    }
+
+    /**
+     * Adds the given key to this set.
+     *
+     * @param key the key to add
+     * @return true if the key was not yet contained
+     */
+    public boolean add(long key) {
+        if (key == EMPTY) {
+            if (containsEmpty) return false;
+            containsEmpty = true;
+            size++;
+            return true;
+        }
+        var mask = keys.length - 1;
+        var index = mix(key) & mask;
+        while (keys[index] != EMPTY) {
+            if (keys[index] == key) return false;
+            index = (index + 1) & mask;
+        }
+        keys[index] = key;
+        if (++size * 2 > keys.length) grow();
+        return true;
+    }
+
+    /**
+     * Checks whether the given key is contained in this set.
+     *
+     * @param key the key to check
+     * @return true if the key is contained
+     */
+    public boolean contains(long key) {
+        if (key == EMPTY) return containsEmpty;
+        var mask = keys.length - 1;
+        var index = mix(key) & mask;
+        while (keys[index] != EMPTY) {
+            if (keys[index] == key) return true;
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the amount of keys in this set.
+     *
+     * @return the size of this set
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes all keys from this set, keeping its capacity.
+     */
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        containsEmpty = false;
+        size = 0;
+    }
+
+    private void grow() {
+        var previous = keys;
+        keys = new long[previous.length * 2];
+        var mask = keys.length - 1;
+        for (var key : previous) {
+            if (key == EMPTY) continue;
+            var index = mix(key) & mask;
+            while (keys[index] != EMPTY) index = (index + 1) & mask;
+            keys[index] = key;
+        }
+    }
+
+    private static int mix(long key) {
+        var hash = (key ^ key >>> 33) * 0xFF51AFD7ED558CCDL;
+        hash = (hash ^ hash >>> 33) * 0xC4CEB9FE1A85EC53L;
+        return (int) (hash ^ hash >>> 33);
+    }
+}
@@ -0,0 +1,159 @@
+package net.thenextlvl.gopaint.api.math;
+
+import com.google.common.base.Preconditions;
+import com.sk89q.worldedit.math.BlockVector3;
+import org.bukkit.Axis;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * An immutable table of block offsets relative to a center, sorted by their distance to the center.
+ * <p>
+ * Each offset is packed into a single {@code int} using ten bits per axis,
+ * which limits the radius of a table to {@link #MAX_RADIUS}.
+ *
+ * @see OffsetTables
+ */
+public final class OffsetTable {
+    /**
+     * The largest radius an offset table can cover.
+     */
+    public static final int MAX_RADIUS = 511;
+
+    private static final int BITS = 10;
+    private static final int MASK = (1 << BITS) - 1;
+    private static final int BIAS = 1 << (BITS - 1);
+
+    private final int[] offsets;
+    private final int[] distances;
+    private final int limit;
+
+    /**
+     * Creates a table of all offsets whose squared distance to the center does not exceed the given limit.
+     *
+     * @param limit the inclusive squared distance limit
+     * @param axis  the axis the table is flattened on, or null for a three-dimensional table
+     */
+    OffsetTable(int limit, @Nullable Axis axis) {
+        var bound = limit < 0 ? -1 : Sphere.sqrt(limit);
+        Preconditions.checkArgument(bound <= MAX_RADIUS, "Radius exceeds maximum of %s", MAX_RADIUS);
+
+        var boundX = axis == Axis.X ? Math.min(bound, 0) : bound;
+        var boundY = axis == Axis.Y ? Math.min(bound, 0) : bound;
+        var boundZ = axis == Axis.Z ? Math.min(bound, 0) : bound;
+
+        var keys = new long[Math.max(0, (boundX * 2 + 1) * (boundY * 2 + 1) * (boundZ * 2 + 1))];
+        var size = 0;
+
+        for (var x = -boundX; x <= boundX; x++) {
+            for (var y = -boundY; y <= boundY; y++) {
+                for (var z = -boundZ; z <= boundZ; z++) {
+                    var distance = x * x + y * y + z * z;
+                    if (distance > limit) continue;
+                    keys[size++] = ((long) distance << 32) | pack(x, y, z);
+                }
+            }
+        }
+
+        Arrays.sort(keys, 0, size);
+
+        this.offsets = new int[size];
+        this.distances = new int[size];
+        this.limit = limit;
+
+        for (var i = 0; i < size; i++) {
+            offsets[i] = (int) keys[i];
+            distances[i] = (int) (keys[i] >>> 32);
+        }
+    }
+
+    /**
+     * Returns the amount of offsets in this table.
+     *
+     * @return the size of this table
+     */
+    public int size() {
+        return offsets.length;
+    }
+
+    /**
+     * Returns the inclusive squared distance limit this table was built with.
+     *
+     * @return the squared distance limit
+     */
+    public int getDistanceLimit() {
+        return limit;
+    }
+
+    /**
+     * Returns the x-offset at the given index.
+     *
+     * @param index the index of the offset
+     * @return the x-offset
+     */
+    public int getX(int index) {
+        return unpackX(offsets[index]);
+    }
+
+    /**
+     * Returns the y-offset at the given index.
+     *
+     * @param index the index of the offset
+     * @return the y-offset
+     */
+    public int getY(int index) {
+        return unpackY(offsets[index]);
+    }
+
+    /**
+     * Returns the z-offset at the given index.
+     *
+     * @param index the index of the offset
+     * @return the z-offset
+     */
+    public int getZ(int index) {
+        return unpackZ(offsets[index]);
+    }
+
+    /**
+     * Returns the squared distance of the offset at the given index to the center.
+     *
+     * @param index the index of the offset
+     * @return the squared distance to the center
+     */
+    public int getDistanceSquared(int index) {
+        return distances[index];
+    }
+
+    /**
+     * Translates all offsets of this table by the given origin, nearest offsets first.
+     *
+     * @param origin   the origin to translate the offsets by
+     * @param consumer the visitor receiving the absolute block coordinates
+     */
+    public void forEach(BlockVector3 origin, IntTriConsumer consumer) {
+        var originX = origin.getX();
+        var originY = origin.getY();
+        var originZ = origin.getZ();
+        for (var offset : offsets) {
+            consumer.accept(originX + unpackX(offset), originY + unpackY(offset), originZ + unpackZ(offset));
+        }
+    }
+
+    private static int pack(int x, int y, int z) {
+        return ((x + BIAS) << (BITS * 2)) | ((y + BIAS) << BITS) | (z + BIAS);
+    }
+
+    private static int unpackX(int offset) {
+        return ((offset >>> (BITS * 2)) & MASK) - BIAS;
+    }
+
+    private static int unpackY(int offset) {
+        return ((offset >>> BITS) & MASK) - BIAS;
+    }
+
+    private static int unpackZ(int offset) {
+        return (offset & MASK) - BIAS;
+    }
+}
@@ -0,0 +1,171 @@
+package net.thenextlvl.gopaint.api.math;
+
+import com.google.common.base.Preconditions;
+import com.sk89q.worldedit.math.BlockVector3;
+import org.bukkit.Axis;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A shared, size-bounded cache of {@link OffsetTable offset tables}.
+ * <p>
+ * Tables are keyed by their squared distance limit and axis, so all radii describing the same set of blocks
+ * share a single table. When the cache is full, the least recently used table is evicted.
+ * <p>
+ * Only radii up to {@value #MAX_CACHED_RADIUS} are cached, since building a table allocates a key for every block
+ * of its bounding cube. Larger spheres are iterated directly instead.
+ */
+public final class OffsetTables {
+    /**
+     * The largest radius served from the cache.
+     */
+    public static final int MAX_CACHED_RADIUS = 64;
+
+    private static final Map<Key, OffsetTable> tables = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, OffsetTable> eldest) {
+            return size() > maximumSize;
+        }
+    };
+
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+
+    private static volatile int maximumSize = 32;
+
+    /**
+     * Returns the table of all blocks with a distance less than {@code radius} to the center.
+     *
+     * @param radius the radius of the sphere
+     * @return the cached offset table
+     * @see Sphere#forEachBlockInRadius(BlockVector3, double, IntTriConsumer)
+     */
+    public static OffsetTable sphere(double radius) {
+        return getTable(Sphere.getDistanceLimit(radius), null);
+    }
+
+    /**
+     * Returns the table of a filled sphere as created by {@code EditSession#makeSphere},
+     * which contains all blocks with a distance of at most {@code radius + 0.5} to the center.
+     *
+     * @param radius the radius of the sphere
+     * @return the cached offset table
+     */
+    public static OffsetTable ball(double radius) {
+        return getTable(getBallLimit(radius), null);
+    }
+
+    /**
+     * Returns the table of a filled disc as created by {@code EditSession#makeSphere}
+     * with a zero radius on the given axis.
+     *
+     * @param radius the radius of the disc
+     * @param axis   the axis the disc is perpendicular to
+     * @return the cached offset table
+     */
+    public static OffsetTable disc(double radius, Axis axis) {
+        return getTable(getBallLimit(radius), axis);
+    }
+
+    /**
+     * Checks whether a table of the given radius is served from the cache.
+     *
+     * @param radius the radius to check
+     * @return true if the radius can be cached
+     * @see #MAX_CACHED_RADIUS
+     */
+    public static boolean isCacheable(double radius) {
+        return radius + 0.5 < MAX_CACHED_RADIUS + 1;
+    }
+
+    /**
+     * Returns the amount of lookups that were served from the cache.
+     *
+     * @return the amount of cache hits
+     */
+    public static long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the amount of lookups that required a new table to be computed.
+     *
+     * @return the amount of cache misses
+     */
+    public static long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the maximum amount of tables kept in the cache.
+     *
+     * @return the maximum size of the cache
+     */
+    public static int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Sets the maximum amount of tables kept in the cache, evicting the least recently used tables if necessary.
+     * A size of {@code 0} disables the cache, so every lookup computes a new table.
+     *
+     * @param size the maximum size of the cache
+     */
+    public static void setMaximumSize(int size) {
+        Preconditions.checkArgument(size >= 0, "Cache size must not be negative");
+        synchronized (tables) {
+            maximumSize = size;
+            var iterator = tables.entrySet().iterator();
+            while (tables.size() > size && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Removes all tables from the cache and resets the hit and miss counters.
+     */
+    public static void clear() {
+        synchronized (tables) {
+            tables.clear();
+        }
+        hits.reset();
+        misses.reset();
+    }
+
+    private static OffsetTable getTable(int limit, @Nullable Axis axis) {
+        var key = new Key(limit, axis);
+        synchronized (tables) {
+            var table = tables.get(key);
+            if (table != null) {
+                hits.increment();
+                return table;
+            }
+        }
+        misses.increment();
+        var table = new OffsetTable(limit, axis);
+        synchronized (tables) {
+            var present = tables.putIfAbsent(key, table);
+            return present != null ? present : table;
+        }
+    }
+
+    /**
+     * Returns the inclusive squared distance limit of a filled sphere as created by {@code EditSession#makeSphere}.
+     *
+     * @param radius the radius of the sphere
+     * @return the inclusive squared distance limit, negative if the sphere is empty
+     * @see #ball(double)
+     */
+    public static int getBallLimit(double radius) {
+        if (radius < 0) return -1;
+        return (int) Math.floor((radius + 0.5) * (radius + 0.5));
+    }
+
+    private record Key(int limit, @Nullable Axis axis) {
+    }
+}
@@ -0,0 +1,89 @@
+package net.thenextlvl.gopaint.api.math;
+
+import com.sk89q.worldedit.math.BlockVector3;
+
+import java.util.Arrays;
+
+/**
+ * A stroke-scoped field of {@link Height#getAverageHeightDiffAngle(HeightMap, int, int, int, int) slopes}
+ * at a fixed distance.
+ * <p>
+ * The slope of a column is the steepest of the central differences along both axes and diagonals.
+ * It is computed once and reused for every height of the column that resolves to the same surfaces,
+ * so the result is always identical to a direct lookup.
+ * <p>
+ * Slope fields are not thread-safe and should not outlive the stroke they were created for.
+ */
+public final class SlopeField {
+    private final HeightMap heightMap;
+    private final int distance;
+    private final int minX, minZ, side;
+
+    private final int[] differences;
+    private final int[] lower;
+    private final int[] upper;
+
+    /**
+     * Creates a new slope field covering all columns within the given radius around the center.
+     *
+     * @param heightMap the height map to read the surface heights from,
+     *                  covering at least the radius plus the distance
+     * @param center    the center of the covered area
+     * @param radius    the horizontal radius of the covered area
+     * @param distance  the distance of the central differences
+     */
+    public SlopeField(HeightMap heightMap, BlockVector3 center, int radius, int distance) {
+        var bound = Math.max(0, radius);
+        this.heightMap = heightMap;
+        this.distance = distance;
+        this.side = bound * 2 + 1;
+        this.minX = center.getX() - bound;
+        this.minZ = center.getZ() - bound;
+        this.differences = new int[side * side];
+        this.lower = new int[side * side];
+        this.upper = new int[side * side];
+        Arrays.fill(lower, Integer.MAX_VALUE);
+        Arrays.fill(upper, Integer.MIN_VALUE);
+    }
+
+    /**
+     * Returns the slope at the given block.
+     *
+     * @param x the x-coordinate of the block
+     * @param y the y-coordinate of the block
+     * @param z the z-coordinate of the block
+     * @return the slope at the given distance
+     * @see Height#getAverageHeightDiffAngle(HeightMap, int, int, int, int)
+     */
+    public double getSlope(int x, int y, int z) {
+        var localX = x - minX;
+        var localZ = z - minZ;
+        if (localX < 0 || localZ < 0 || localX >= side || localZ >= side)
+            return Height.getAverageHeightDiffAngle(heightMap, x, y, z, distance);
+
+        var column = localZ * side + localX;
+        if (lower[column] > y || y > upper[column]) {
+            lower[column] = Integer.MIN_VALUE;
+            upper[column] = Integer.MAX_VALUE;
+            var difference = difference(column, x + distance, y, z - distance, x - distance, z + distance);
+            difference = Math.max(difference, difference(column, x + distance, y, z + distance, x - distance, z - distance));
+            difference = Math.max(difference, difference(column, x + distance, y, z, x - distance, z));
+            difference = Math.max(difference, difference(column, x, y, z - distance, x, z + distance));
+            differences[column] = difference;
+        }
+        return differences[column] / (double) distance;
+    }
+
+    private int difference(int column, int x1, int y, int z1, int x2, int z2) {
+        var first = lookup(column, x1, y, z1);
+        var second = lookup(column, x2, y, z2);
+        return Math.abs(first - second);
+    }
+
+    private int lookup(int column, int x, int y, int z) {
+        var height = heightMap.getHeight(x, y, z);
+        lower[column] = Math.max(lower[column], heightMap.getLowerBound(x, y, z));
+        upper[column] = Math.min(upper[column], heightMap.getUpperBound(x, y, z));
+        return height;
+    }
+}
@@ -25,20 +25,122 @@ import java.util.Set;
 
 public class Sphere {
 
+    /**
+     * Collects all blocks within the given radius around a position.
+     * <p>
+     * This is a convenience adapter around {@link #forEachBlockInRadius(BlockVector3, double, IntTriConsumer)},
+     * prefer the visitor when the blocks are only iterated once.
+     *
+     * @param position the center of the sphere
+     * @param radius   the radius of the sphere
+     * @return a set of all blocks with a distance less than {@code radius} to the center
+     */
     public static Set<BlockVector3> getBlocksInRadius(BlockVector3 position, double radius) {
         var vectors = new HashSet<BlockVector3>();
-        var loc1 = position.subtract((int) radius, (int) radius, (int) radius);
-        var loc2 = position.add((int) radius, (int) radius, (int) radius);
-
-        for (var x = loc1.getX(); x <= loc2.getX(); x++) {
-            for (var y = loc1.getY(); y <= loc2.getY(); y++) {
-                for (var z = loc1.getZ(); z <= loc2.getZ(); z++) {
-                    var vector3 = BlockVector3.at(x, y, z);
-                    if (vector3.distance(position) >= radius) continue;
-                    vectors.add(vector3);
+        forEachBlockInRadius(position, radius, (x, y, z) -> vectors.add(BlockVector3.at(x, y, z)));
+        return vectors;
+    }
+
+    /**
+     * Visits all blocks within the given radius around a position without allocating any vectors.
+     * A block is part of the sphere if its distance to the center is less than {@code radius}.
+     * <p>
+     * The blocks are translated from a cached {@link OffsetTable} when possible, nearest blocks first.
+     *
+     * @param position the center of the sphere
+     * @param radius   the radius of the sphere
+     * @param consumer the visitor receiving the absolute block coordinates
+     */
+    public static void forEachBlockInRadius(BlockVector3 position, double radius, IntTriConsumer consumer) {
+        if (OffsetTables.isCacheable(radius)) {
+            OffsetTables.sphere(radius).forEach(position, consumer);
+            return;
+        }
+
+        var limit = getDistanceLimit(radius);
+        var bound = (int) radius;
+        var centerX = position.getX();
+        var centerY = position.getY();
+        var centerZ = position.getZ();
+
+        for (var x = -bound; x <= bound; x++) {
+            var remainingX = limit - x * x;
+            if (remainingX < 0) continue;
+            for (var y = -bound; y <= bound; y++) {
+                var remainingY = remainingX - y * y;
+                if (remainingY < 0) continue;
+                var extent = Math.min(bound, sqrt(remainingY));
+                for (var z = -extent; z <= extent; z++) {
+                    consumer.accept(centerX + x, centerY + y, centerZ + z);
                 }
             }
         }
-        return vectors;
+    }
+
+    /**
+     * Visits every column of the blocks whose squared distance to a position does not exceed the given limit,
+     * together with the vertical run of the column inside that distance.
+     *
+     * @param position the center of the sphere
+     * @param limit    the inclusive squared distance limit
+     * @param consumer the visitor receiving the columns
+     * @see #getDistanceLimit(double)
+     * @see OffsetTables#getBallLimit(double)
+     */
+    public static void forEachColumn(BlockVector3 position, int limit, ColumnConsumer consumer) {
+        if (limit < 0) return;
+        var bound = sqrt(limit);
+        for (var x = -bound; x <= bound; x++) {
+            var remainingX = limit - x * x;
+            var extent = sqrt(remainingX);
+            for (var z = -extent; z <= extent; z++) {
+                var height = sqrt(remainingX - z * z);
+                consumer.accept(position.getX() + x, position.getZ() + z,
+                        position.getY() - height, position.getY() + height);
+            }
+        }
+    }
+
+    /**
+     * Checks whether the given block is within the radius of the sphere around a position.
+     *
+     * @param position the center of the sphere
+     * @param radius   the radius of the sphere
+     * @param x        the x-coordinate of the block
+     * @param y        the y-coordinate of the block
+     * @param z        the z-coordinate of the block
+     * @return true if the distance of the block to the center is less than {@code radius}
+     */
+    public static boolean isInRadius(BlockVector3 position, double radius, int x, int y, int z) {
+        var distanceX = x - position.getX();
+        var distanceY = y - position.getY();
+        var distanceZ = z - position.getZ();
+        return distanceX * distanceX + distanceY * distanceY + distanceZ * distanceZ <= getDistanceLimit(radius);
+    }
+
+    /**
+     * Returns the largest integer squared distance that is still inside a sphere of the given radius.
+     * Block offsets have integer squared distances, so {@code distance < radius} is equivalent to
+     * {@code distanceSquared <= getDistanceLimit(radius)}.
+     *
+     * @param radius the radius of the sphere
+     * @return the inclusive squared distance limit, negative if the sphere is empty
+     */
+    public static int getDistanceLimit(double radius) {
+        if (radius <= 0) return -1;
+        return (int) Math.ceil(radius * radius) - 1;
+    }
+
+    /**
+     * Returns the integer square root of the given value, rounded down.
+     *
+     * @param value the non-negative value
+     * @return the largest integer whose square is less than or equal to {@code value}
+     */
+    static int sqrt(int value) {
+        var root = (int) Math.sqrt(value);
+        while (root * root > value) root--;
+        while ((root + 1) * (root + 1) <= value) root++;
+        return root;
     }
 }
@@ -0,0 +1,132 @@
+package net.thenextlvl.gopaint.api.math;
+
+import com.sk89q.worldedit.math.BlockVector3;
+
+import java.util.Arrays;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * A lazily built summed-area table over a square grid of columns.
+ * <p>
+ * The sum of any rectangular window is answered with four lookups, independent of its size.
+ * Rows of the table are computed on demand, so only the part of the grid a stroke actually reaches is read.
+ * Windows are clipped to the grid.
+ * <p>
+ * Summed-area tables are not thread-safe and should not outlive the stroke they were created for.
+ */
+public final class SummedAreaTable {
+    private final IntBinaryOperator values;
+    private final int minX, minZ, side;
+    private final long[] sums;
+    private int rows;
+
+    /**
+     * Creates a new summed-area table covering all columns within the given radius around the center.
+     *
+     * @param center the center of the covered area
+     * @param radius the horizontal radius of the covered area
+     * @param values the value of a column, given its x and z coordinate
+     */
+    public SummedAreaTable(BlockVector3 center, int radius, IntBinaryOperator values) {
+        var bound = Math.max(0, radius);
+        this.values = values;
+        this.side = bound * 2 + 1;
+        this.minX = center.getX() - bound;
+        this.minZ = center.getZ() - bound;
+        this.sums = new long[(side + 1) * (side + 1)];
+    }
+
+    /**
+     * Creates a new summed-area table over the surface heights around the center.
+     * <p>
+     * The surface of the center column is looked up from the height of the center. Every other column is looked up
+     * from the surface of its neighbour towards the center, so the table follows the terrain outwards
+     * instead of sampling steep terrain at the height of the center.
+     *
+     * @param heightMap the height map to read the surface heights from
+     * @param center    the center of the covered area, also used as reference height of the center column
+     * @param radius    the horizontal radius of the covered area
+     * @return the summed-area table of the surface heights
+     */
+    public static SummedAreaTable ofHeights(HeightMap heightMap, BlockVector3 center, int radius) {
+        return new SummedAreaTable(center, radius, new Surfaces(heightMap, center, radius)::getSurface);
+    }
+
+    /**
+     * Returns the sum of all columns within the given window, clipped to the grid.
+     *
+     * @param minX the lowest x-coordinate of the window
+     * @param minZ the lowest z-coordinate of the window
+     * @param maxX the highest x-coordinate of the window
+     * @param maxZ the highest z-coordinate of the window
+     * @return the sum of the window
+     */
+    public long getSum(int minX, int minZ, int maxX, int maxZ) {
+        var fromX = Math.max(minX - this.minX, 0);
+        var fromZ = Math.max(minZ - this.minZ, 0);
+        var toX = Math.min(maxX - this.minX, side - 1);
+        var toZ = Math.min(maxZ - this.minZ, side - 1);
+        if (fromX > toX || fromZ > toZ) return 0;
+        computeRows(toZ + 1);
+        var stride = side + 1;
+        return sums[(toZ + 1) * stride + toX + 1] - sums[fromZ * stride + toX + 1]
+               - sums[(toZ + 1) * stride + fromX] + sums[fromZ * stride + fromX];
+    }
+
+    /**
+     * Returns the average of all columns within the given distance around a column, clipped to the grid.
+     *
+     * @param x        the x-coordinate of the center column
+     * @param z        the z-coordinate of the center column
+     * @param distance the distance to average over
+     * @return the average of the window, or {@code 0} if it lies outside the grid
+     */
+    public double getAverage(int x, int z, int distance) {
+        var width = Math.min(x + distance, this.minX + side - 1) - Math.max(x - distance, this.minX) + 1;
+        var length = Math.min(z + distance, this.minZ + side - 1) - Math.max(z - distance, this.minZ) + 1;
+        if (width <= 0 || length <= 0) return 0;
+        return getSum(x - distance, z - distance, x + distance, z + distance) / (double) (width * length);
+    }
+
+    private void computeRows(int count) {
+        var stride = side + 1;
+        for (; rows < count; rows++) {
+            var row = (rows + 1) * stride;
+            var above = rows * stride;
+            long sum = 0;
+            for (var column = 0; column < side; column++) {
+                sum += values.applyAsInt(minX + column, minZ + rows);
+                sums[row + column + 1] = sums[above + column + 1] + sum;
+            }
+        }
+    }
+
+    private static final class Surfaces {
+        private static final int UNKNOWN = Integer.MIN_VALUE;
+
+        private final HeightMap heightMap;
+        private final BlockVector3 center;
+        private final int minX, minZ, side;
+        private final int[] surfaces;
+
+        private Surfaces(HeightMap heightMap, BlockVector3 center, int radius) {
+            var bound = Math.max(0, radius);
+            this.heightMap = heightMap;
+            this.center = center;
+            this.side = bound * 2 + 1;
+            this.minX = center.getX() - bound;
+            this.minZ = center.getZ() - bound;
+            this.surfaces = new int[side * side];
+            Arrays.fill(surfaces, UNKNOWN);
+        }
+
+        private int getSurface(int x, int z) {
+            var index = (z - minZ) * side + x - minX;
+            if (surfaces[index] != UNKNOWN) return surfaces[index];
+            var inwardX = x - Integer.signum(x - center.getX());
+            var inwardZ = z - Integer.signum(z - center.getZ());
+            var y = inwardX == x && inwardZ == z ? center.getY() : getSurface(inwardX, inwardZ);
+            return surfaces[index] = heightMap.getHeight(x, y, z);
+        }
+    }
+}
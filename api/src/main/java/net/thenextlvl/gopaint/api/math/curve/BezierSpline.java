@@ -19,135 +19,289 @@
 package net.thenextlvl.gopaint.api.math.curve;
 
 import com.fastasyncworldedit.core.math.MutableBlockVector3;
+import com.google.common.base.Preconditions;
 import com.sk89q.worldedit.math.BlockVector3;
 import lombok.Getter;
 import org.jetbrains.annotations.Contract;
 
 import java.util.Arrays;
 import java.util.List;
-import java.util.OptionalDouble;
 
-@Getter
+/**
+ * A smooth cubic Bézier spline through a sequence of knots.
+ * <p>
+ * The control points are solved in double precision with the Thomas algorithm, and every segment is stored
+ * as the coefficients of its cubic polynomial per axis, which are evaluated in Horner form.
+ * An arc-length table allows sampling the spline at uniform distances.
+ * The spline passes exactly through all of its knots, and axes on which all knots are equal stay exactly flat.
+ */
 public class BezierSpline {
+    private static final int SAMPLES_PER_SEGMENT = 16;
+
+    private final int segments;
+    private final double[] x, y, z;
+    private final double[] lengths;
 
-    private final MutableBlockVector3[] knots;
-    private final BezierSplineSegment[] segments;
+    @Getter
     private final double curveLength;
 
-    public BezierSpline(List<MutableBlockVector3> curve) {
-        this.knots = curve.toArray(new MutableBlockVector3[0]);
-        this.segments = new BezierSplineSegment[knots.length - 1];
-        for (var segment = 0; segment < knots.length - 1; segment++) {
-            segments[segment] = new BezierSplineSegment(knots[segment], knots[segment + 1]);
+    public BezierSpline(List<? extends BlockVector3> curve) {
+        this(curve.stream().mapToDouble(BlockVector3::getX).toArray(),
+                curve.stream().mapToDouble(BlockVector3::getY).toArray(),
+                curve.stream().mapToDouble(BlockVector3::getZ).toArray());
+    }
+
+    /**
+     * Creates a new spline through the given knots.
+     *
+     * @param knotsX the x-coordinates of the knots
+     * @param knotsY the y-coordinates of the knots
+     * @param knotsZ the z-coordinates of the knots
+     */
+    public BezierSpline(double[] knotsX, double[] knotsY, double[] knotsZ) {
+        Preconditions.checkArgument(knotsX.length == knotsY.length && knotsY.length == knotsZ.length,
+                "All axes must have the same amount of knots");
+        Preconditions.checkArgument(knotsX.length >= 2, "A spline requires at least two knots");
+        this.segments = knotsX.length - 1;
+        this.x = coefficients(knotsX);
+        this.y = coefficients(knotsY);
+        this.z = coefficients(knotsZ);
+        this.lengths = new double[segments * SAMPLES_PER_SEGMENT + 1];
+        this.curveLength = calculateLengths();
+    }
+
+    /**
+     * Returns the amount of segments of this spline, one less than the amount of knots.
+     *
+     * @return the amount of segments
+     */
+    public int getSegmentCount() {
+        return segments;
+    }
+
+    /**
+     * Returns the knots of this spline.
+     *
+     * @return a copy of the knots, rounded to block positions
+     * @deprecated use {@link #getPoint(double)} at whole segment indices instead
+     */
+    @Deprecated
+    public MutableBlockVector3[] getKnots() {
+        var knots = new MutableBlockVector3[segments + 1];
+        for (var knot = 0; knot <= segments; knot++) {
+            knots[knot] = new MutableBlockVector3(getPoint(knot));
+        }
+        return knots;
+    }
+
+    /**
+     * Returns the segments of this spline described by their control points.
+     *
+     * @return a copy of the segments
+     * @deprecated use {@link #getSegmentCount()} and {@link #getPoint(double)} instead
+     */
+    @Deprecated
+    public BezierSplineSegment[] getSegments() {
+        var knots = getKnots();
+        var result = new BezierSplineSegment[segments];
+        for (var segment = 0; segment < segments; segment++) {
+            var offset = segment * 4;
+            result[segment] = new BezierSplineSegment(knots[segment], knots[segment + 1]);
+            result[segment].setIntermediatePoint1(new MutableBlockVector3(BlockVector3.at(
+                    getControlPoint(x, offset, 1), getControlPoint(y, offset, 1), getControlPoint(z, offset, 1))));
+            result[segment].setIntermediatePoint2(new MutableBlockVector3(BlockVector3.at(
+                    getControlPoint(x, offset, 2), getControlPoint(y, offset, 2), getControlPoint(z, offset, 2))));
         }
-        calculateControlPoints();
-        this.curveLength = calculateLength();
+        return result;
     }
 
+    /**
+     * Returns the arc length of this spline.
+     *
+     * @return the arc length
+     * @deprecated the length is calculated once on creation, use {@link #getCurveLength()} instead
+     */
+    @Deprecated
     @Contract(pure = true)
     public double calculateLength() {
-        var length = this.curveLength;
-        for (var segment : segments) {
-            length += segment.getCurveLength();
-        }
-        return length;
+        return curveLength;
+    }
+
+    /**
+     * Does nothing, since the control points are solved once on creation.
+     *
+     * @deprecated the control points are solved once on creation
+     */
+    @Deprecated
+    public void calculateControlPoints() {
     }
 
     @Contract(pure = true)
     public BlockVector3 getPoint(double point) {
-        if (point >= segments.length) {
-            return getPoint(segments.length - 1, 1);
-        } else {
-            return getPoint((int) Math.floor(point), point - Math.floor(point));
-        }
+        return BlockVector3.at(getX(point), getY(point), getZ(point));
     }
 
     @Contract(pure = true)
     public BlockVector3 getPoint(int segmentIndex, double factor) {
-        assert (segmentIndex < segments.length);
-        assert (factor > 0 && factor <= 1);
-        return segments[segmentIndex].getPoint(factor);
+        return getPoint(segmentIndex + factor);
     }
 
-    public void calculateControlPoints() {
-        if (segments.length == 0) return;
-
-        var xFlat = Arrays.stream(knots).allMatch(l -> l.getBlockX() == knots[0].getX())
-                ? OptionalDouble.of(knots[0].getX()) : OptionalDouble.empty();
-        var yFlat = Arrays.stream(knots).allMatch(l -> l.getBlockY() == knots[0].getY())
-                ? OptionalDouble.of(knots[0].getY()) : OptionalDouble.empty();
-        var zFlat = Arrays.stream(knots).allMatch(l -> l.getBlockZ() == knots[0].getZ())
-                ? OptionalDouble.of(knots[0].getZ()) : OptionalDouble.empty();
-
-        if (segments.length == 1) {
-            var midpoint = new MutableBlockVector3(0, 0, 0);
-            midpoint.mutX((segments[0].getStartPoint().getX() + segments[0].getEndPoint().getX()) / 2);
-            midpoint.mutY((segments[0].getStartPoint().getY() + segments[0].getEndPoint().getY()) / 2);
-            midpoint.mutZ((segments[0].getStartPoint().getZ() + segments[0].getEndPoint().getZ()) / 2);
-            segments[0].setIntermediatePoint1(midpoint);
-            segments[0].setIntermediatePoint2(new MutableBlockVector3(midpoint));
-        } else {
-            segments[0].setCoefficient1(0);
-            segments[0].setCoefficient2(2);
-            segments[0].setCoefficient3(1);
-            segments[0].getResult().mutX(knots[0].getX() + 2 * knots[1].getX());
-            segments[0].getResult().mutY(knots[0].getY() + 2 * knots[1].getY());
-            segments[0].getResult().mutZ(knots[0].getZ() + 2 * knots[1].getZ());
-
-            int n = knots.length - 1;
-            float m;
-
-            for (int i = 1; i < n - 1; i++) {
-                segments[i].setCoefficient1(1);
-                segments[i].setCoefficient2(4);
-                segments[i].setCoefficient3(1);
-                segments[i].getResult().mutX(4 * knots[i].getX() + 2 * knots[i + 1].getX());
-                segments[i].getResult().mutY(4 * knots[i].getY() + 2 * knots[i + 1].getY());
-                segments[i].getResult().mutZ(4 * knots[i].getZ() + 2 * knots[i + 1].getZ());
-            }
-
-            segments[n - 1].setCoefficient1(2);
-            segments[n - 1].setCoefficient2(7);
-            segments[n - 1].setCoefficient3(0);
-            segments[n - 1].getResult().mutX(8 * knots[n - 1].getX() + knots[n].getX());
-            segments[n - 1].getResult().mutY(8 * knots[n - 1].getY() + knots[n].getY());
-            segments[n - 1].getResult().mutZ(8 * knots[n - 1].getZ() + knots[n].getZ());
-
-            for (int i = 1; i < n; i++) {
-                m = segments[i].getCoefficient1() / segments[i - 1].getCoefficient2();
-                segments[i].setCoefficient2(segments[i].getCoefficient2() - m * segments[i - 1].getCoefficient3());
-                segments[i].getResult().mutX(segments[i].getResult().getX() - m * segments[i - 1].getResult().getX());
-                segments[i].getResult().mutY(segments[i].getResult().getY() - m * segments[i - 1].getResult().getY());
-                segments[i].getResult().mutZ(segments[i].getResult().getZ() - m * segments[i - 1].getResult().getZ());
-            }
-
-            segments[n - 1].getIntermediatePoint1().mutX(segments[n - 1].getResult().getX() / segments[n - 1].getCoefficient2());
-            segments[n - 1].getIntermediatePoint1().mutY(segments[n - 1].getResult().getY() / segments[n - 1].getCoefficient2());
-            segments[n - 1].getIntermediatePoint1().mutZ(segments[n - 1].getResult().getZ() / segments[n - 1].getCoefficient2());
-
-            for (int i = n - 2; i >= 0; i--) {
-                segments[i].getIntermediatePoint1().mutX((segments[i].getResult().getX() - segments[i].getCoefficient3() * segments[i + 1].getIntermediatePoint1().getX()) / segments[i].getCoefficient2());
-                segments[i].getIntermediatePoint1().mutY((segments[i].getResult().getY() - segments[i].getCoefficient3() * segments[i + 1].getIntermediatePoint1().getY()) / segments[i].getCoefficient2());
-                segments[i].getIntermediatePoint1().mutZ((segments[i].getResult().getZ() - segments[i].getCoefficient3() * segments[i + 1].getIntermediatePoint1().getZ()) / segments[i].getCoefficient2());
-            }
-
-            for (int i = 0; i < n - 1; i++) {
-                segments[i].getIntermediatePoint2().mutX(2 * knots[i + 1].getX() - segments[i + 1].getIntermediatePoint1().getX());
-                segments[i].getIntermediatePoint2().mutY(2 * knots[i + 1].getY() - segments[i + 1].getIntermediatePoint1().getY());
-                segments[i].getIntermediatePoint2().mutZ(2 * knots[i + 1].getZ() - segments[i + 1].getIntermediatePoint1().getZ());
-            }
-            segments[n - 1].getIntermediatePoint2().mutX(0.5 * (knots[n].getX() + segments[n - 1].getIntermediatePoint1().getX()));
-            segments[n - 1].getIntermediatePoint2().mutY(0.5 * (knots[n].getY() + segments[n - 1].getIntermediatePoint1().getY()));
-            segments[n - 1].getIntermediatePoint2().mutZ(0.5 * (knots[n].getZ() + segments[n - 1].getIntermediatePoint1().getZ()));
+    /**
+     * Returns the x-coordinate of the spline at the given point.
+     *
+     * @param point the segment index plus the factor within the segment, from {@code 0} to {@link #getSegmentCount()}
+     * @return the x-coordinate at the given point
+     */
+    @Contract(pure = true)
+    public double getX(double point) {
+        return evaluate(x, point);
+    }
+
+    /**
+     * Returns the y-coordinate of the spline at the given point.
+     *
+     * @param point the segment index plus the factor within the segment, from {@code 0} to {@link #getSegmentCount()}
+     * @return the y-coordinate at the given point
+     */
+    @Contract(pure = true)
+    public double getY(double point) {
+        return evaluate(y, point);
+    }
+
+    /**
+     * Returns the z-coordinate of the spline at the given point.
+     *
+     * @param point the segment index plus the factor within the segment, from {@code 0} to {@link #getSegmentCount()}
+     * @return the z-coordinate at the given point
+     */
+    @Contract(pure = true)
+    public double getZ(double point) {
+        return evaluate(z, point);
+    }
+
+    /**
+     * Returns the point of the spline at the given arc length from its start.
+     *
+     * @param length the arc length, from {@code 0} to {@link #getCurveLength()}
+     * @return the segment index plus the factor within the segment at the given arc length
+     */
+    @Contract(pure = true)
+    public double getPointAtLength(double length) {
+        if (length <= 0) return 0;
+        if (length >= curveLength) return segments;
+        var index = Arrays.binarySearch(lengths, length);
+        if (index >= 0) return index / (double) SAMPLES_PER_SEGMENT;
+        var upper = -index - 1;
+        var lower = upper - 1;
+        var fraction = (length - lengths[lower]) / (lengths[upper] - lengths[lower]);
+        return (lower + fraction) / SAMPLES_PER_SEGMENT;
+    }
+
+    private double evaluate(double[] coefficients, double point) {
+        var clamped = Math.clamp(point, 0, segments);
+        var segment = Math.min((int) clamped, segments - 1);
+        var t = clamped - segment;
+        var offset = segment * 4;
+        if (t == 1) return coefficients[offset + 4];
+        return ((coefficients[offset + 3] * t + coefficients[offset + 2]) * t
+                + coefficients[offset + 1]) * t + coefficients[offset];
+    }
+
+    private static double getControlPoint(double[] coefficients, int offset, int index) {
+        var start = coefficients[offset];
+        var first = start + coefficients[offset + 1] / 3;
+        return index == 1 ? first : 2 * first - start + coefficients[offset + 2] / 3;
+    }
+
+    private double calculateLengths() {
+        var previousX = getX(0);
+        var previousY = getY(0);
+        var previousZ = getZ(0);
+        for (var i = 1; i < lengths.length; i++) {
+            var point = i / (double) SAMPLES_PER_SEGMENT;
+            var currentX = getX(point);
+            var currentY = getY(point);
+            var currentZ = getZ(point);
+            var distanceX = currentX - previousX;
+            var distanceY = currentY - previousY;
+            var distanceZ = currentZ - previousZ;
+            lengths[i] = lengths[i - 1] + Math.sqrt(distanceX * distanceX + distanceY * distanceY + distanceZ * distanceZ);
+            previousX = currentX;
+            previousY = currentY;
+            previousZ = currentZ;
+        }
+        return lengths[lengths.length - 1];
+    }
+
+    private double[] coefficients(double[] knots) {
+        var coefficients = new double[segments * 4 + 1];
+        coefficients[segments * 4] = knots[segments];
+        var flat = Arrays.stream(knots).allMatch(knot -> knot == knots[0]);
+        if (flat) {
+            for (var segment = 0; segment < segments; segment++) coefficients[segment * 4] = knots[0];
+            return coefficients;
         }
 
-        xFlat.ifPresent(value -> Arrays.stream(segments).forEach(segment -> segment.setX(value)));
-        yFlat.ifPresent(value -> Arrays.stream(segments).forEach(segment -> segment.setY(value)));
-        zFlat.ifPresent(value -> Arrays.stream(segments).forEach(segment -> segment.setZ(value)));
+        var first = new double[segments];
+        var second = new double[segments];
+        solveControlPoints(knots, first, second);
+
+        for (var segment = 0; segment < segments; segment++) {
+            var start = knots[segment];
+            var end = knots[segment + 1];
+            var offset = segment * 4;
+            coefficients[offset] = start;
+            coefficients[offset + 1] = 3 * (first[segment] - start);
+            coefficients[offset + 2] = 3 * (start - 2 * first[segment] + second[segment]);
+            coefficients[offset + 3] = end - start + 3 * (first[segment] - second[segment]);
+        }
+        return coefficients;
+    }
+
+    private void solveControlPoints(double[] knots, double[] first, double[] second) {
+        var n = segments;
+        if (n == 1) {
+            first[0] = second[0] = (knots[0] + knots[1]) / 2;
+            return;
+        }
+
+        var lower = new double[n];
+        var diagonal = new double[n];
+        var upper = new double[n];
+        var result = new double[n];
+
+        diagonal[0] = 2;
+        upper[0] = 1;
+        result[0] = knots[0] + 2 * knots[1];
+        for (var i = 1; i < n - 1; i++) {
+            lower[i] = 1;
+            diagonal[i] = 4;
+            upper[i] = 1;
+            result[i] = 4 * knots[i] + 2 * knots[i + 1];
+        }
+        lower[n - 1] = 2;
+        diagonal[n - 1] = 7;
+        result[n - 1] = 8 * knots[n - 1] + knots[n];
+
+        for (var i = 1; i < n; i++) {
+            var m = lower[i] / diagonal[i - 1];
+            diagonal[i] -= m * upper[i - 1];
+            result[i] -= m * result[i - 1];
+        }
+
+        first[n - 1] = result[n - 1] / diagonal[n - 1];
+        for (var i = n - 2; i >= 0; i--) {
+            first[i] = (result[i] - upper[i] * first[i + 1]) / diagonal[i];
+        }
+
+        for (var i = 0; i < n - 1; i++) {
+            second[i] = 2 * knots[i + 1] - first[i + 1];
+        }
+        second[n - 1] = 0.5 * (knots[n] + first[n - 1]);
     }
 
     @Override
     public String toString() {
-        return knots.length + " points.";
+        return (segments + 1) + " points.";
     }
-}
\ No newline at end of file
+}
@@ -28,8 +28,14 @@ import org.jetbrains.annotations.Nullable;
 
 import java.util.Objects;
 
+/**
+ * A single cubic segment of a {@link BezierSpline}, described by its control points.
+ *
+ * @deprecated splines store their segments as polynomial coefficients, see {@link BezierSpline#getX(double)}
+ */
 @Getter
 @Setter
+@Deprecated
 @RequiredArgsConstructor
 public class BezierSplineSegment {
 
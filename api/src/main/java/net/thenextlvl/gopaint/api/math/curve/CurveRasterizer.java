@@ -0,0 +1,270 @@
+package net.thenextlvl.gopaint.api.math.curve;
+
+import com.google.common.base.Preconditions;
+import net.thenextlvl.gopaint.api.math.LongSet;
+import org.bukkit.Axis;
+
+import java.util.Arrays;
+
+/**
+ * Rasterises splines into {@link VoxelPath voxel paths} that contain every block exactly once.
+ * <p>
+ * Every segment of the spline is adaptively subdivided until its pieces deviate from a straight line by less than
+ * a fraction of a block. The resulting polyline is walked block by block, either face-connected with an exact
+ * voxel traversal or vertex-connected with a three-dimensional Bresenham line. Thick curves sweep a disc
+ * perpendicular to the dominant axis of each line along the path. A disc of an even thickness
+ * is centered on the corner of the path block, so every thickness yields a disc exactly that many blocks wide.
+ * <p>
+ * Blocks are emitted at their first visit only, so consecutive blocks of a path are only guaranteed to be
+ * connected where the curve does not revisit blocks it already passed.
+ */
+public final class CurveRasterizer {
+    private static final double TOLERANCE = 0.125;
+    private static final int MIN_DEPTH = 2;
+    private static final int MAX_DEPTH = 16;
+
+    /**
+     * The connectivity of consecutive blocks of a rasterised curve.
+     */
+    public enum Connectivity {
+        /**
+         * Consecutive blocks share a face, so each block has up to 6 neighbours.
+         */
+        FACE,
+        /**
+         * Consecutive blocks share at least a vertex, so each block has up to 26 neighbours.
+         */
+        VERTEX
+    }
+
+    /**
+     * Rasterises the given spline into a vertex-connected path one block thick.
+     *
+     * @param spline the spline to rasterise, relative to the origin of the path
+     * @return the rasterised path
+     */
+    public static VoxelPath rasterize(BezierSpline spline) {
+        return rasterize(spline, Connectivity.VERTEX, 1);
+    }
+
+    /**
+     * Rasterises the given spline into a path.
+     *
+     * @param spline       the spline to rasterise, relative to the origin of the path
+     * @param connectivity the connectivity of consecutive blocks
+     * @param thickness    the diameter of the disc swept along the path, in blocks
+     * @return the rasterised path
+     */
+    public static VoxelPath rasterize(BezierSpline spline, Connectivity connectivity, int thickness) {
+        Preconditions.checkArgument(thickness >= 1, "Thickness must be at least 1");
+        var polyline = new Polyline(spline);
+        var rasterizer = new Rasterizer(thickness, polyline.size);
+        rasterizer.emit(floor(polyline.x[0]), floor(polyline.y[0]), floor(polyline.z[0]));
+        for (var i = 1; i < polyline.size; i++) {
+            var fromX = polyline.x[i - 1];
+            var fromY = polyline.y[i - 1];
+            var fromZ = polyline.z[i - 1];
+            var toX = polyline.x[i];
+            var toY = polyline.y[i];
+            var toZ = polyline.z[i];
+            rasterizer.axis = getDominantAxis(toX - fromX, toY - fromY, toZ - fromZ);
+            if (connectivity == Connectivity.FACE) rasterizer.traverse(fromX, fromY, fromZ, toX, toY, toZ);
+            else rasterizer.bresenham(floor(fromX), floor(fromY), floor(fromZ), floor(toX), floor(toY), floor(toZ));
+        }
+        return rasterizer.path.build();
+    }
+
+    private static Axis getDominantAxis(double x, double y, double z) {
+        var absX = Math.abs(x);
+        var absY = Math.abs(y);
+        var absZ = Math.abs(z);
+        if (absX >= absY && absX >= absZ) return Axis.X;
+        return absY >= absZ ? Axis.Y : Axis.Z;
+    }
+
+    private static int floor(double value) {
+        return (int) Math.floor(value);
+    }
+
+    private static final class Polyline {
+        private final BezierSpline spline;
+        private double[] x, y, z;
+        private int size;
+
+        private Polyline(BezierSpline spline) {
+            var capacity = spline.getSegmentCount() * (1 << MIN_DEPTH) + 1;
+            this.spline = spline;
+            this.x = new double[capacity];
+            this.y = new double[capacity];
+            this.z = new double[capacity];
+            add(0);
+            for (var segment = 0; segment < spline.getSegmentCount(); segment++) {
+                subdivide(segment, segment + 1, 0);
+            }
+        }
+
+        private void subdivide(double from, double to, int depth) {
+            var middle = (from + to) / 2;
+            if (depth < MAX_DEPTH && (depth < MIN_DEPTH || !isFlat(from, middle, to))) {
+                subdivide(from, middle, depth + 1);
+                subdivide(middle, to, depth + 1);
+            } else add(to);
+        }
+
+        private boolean isFlat(double from, double middle, double to) {
+            var fromX = spline.getX(from);
+            var fromY = spline.getY(from);
+            var fromZ = spline.getZ(from);
+            var chordX = spline.getX(to) - fromX;
+            var chordY = spline.getY(to) - fromY;
+            var chordZ = spline.getZ(to) - fromZ;
+            var offsetX = spline.getX(middle) - fromX;
+            var offsetY = spline.getY(middle) - fromY;
+            var offsetZ = spline.getZ(middle) - fromZ;
+            var chord = chordX * chordX + chordY * chordY + chordZ * chordZ;
+            var projection = chord > 0 ? (offsetX * chordX + offsetY * chordY + offsetZ * chordZ) / chord : 0;
+            var deviationX = offsetX - projection * chordX;
+            var deviationY = offsetY - projection * chordY;
+            var deviationZ = offsetZ - projection * chordZ;
+            return deviationX * deviationX + deviationY * deviationY + deviationZ * deviationZ <= TOLERANCE * TOLERANCE;
+        }
+
+        private void add(double point) {
+            if (size == x.length) {
+                x = Arrays.copyOf(x, size * 2);
+                y = Arrays.copyOf(y, size * 2);
+                z = Arrays.copyOf(z, size * 2);
+            }
+            x[size] = spline.getX(point);
+            y[size] = spline.getY(point);
+            z[size] = spline.getZ(point);
+            size++;
+        }
+    }
+
+    private static final class Rasterizer {
+        private final int[] disc;
+        private final VoxelPath.Builder path;
+        private final LongSet visited;
+        private Axis axis = Axis.X;
+
+        private Rasterizer(int thickness, int capacity) {
+            this.path = new VoxelPath.Builder(capacity * thickness * thickness);
+            this.visited = new LongSet(capacity * thickness * thickness);
+            this.disc = disc(thickness);
+        }
+
+        private static int[] disc(int thickness) {
+            var center = (thickness - 1) / 2d;
+            var shift = (thickness - 1) / 2;
+            var limit = thickness * thickness / 4d;
+            var offsets = new int[thickness * thickness * 2];
+            var size = 0;
+            for (var u = 0; u < thickness; u++) {
+                for (var v = 0; v < thickness; v++) {
+                    if ((u - center) * (u - center) + (v - center) * (v - center) > limit) continue;
+                    offsets[size++] = u - shift;
+                    offsets[size++] = v - shift;
+                }
+            }
+            return Arrays.copyOf(offsets, size);
+        }
+
+        private void traverse(double fromX, double fromY, double fromZ, double toX, double toY, double toZ) {
+            var x = floor(fromX);
+            var y = floor(fromY);
+            var z = floor(fromZ);
+            var endX = floor(toX);
+            var endY = floor(toY);
+            var endZ = floor(toZ);
+
+            var directionX = toX - fromX;
+            var directionY = toY - fromY;
+            var directionZ = toZ - fromZ;
+
+            var stepX = Integer.signum(endX - x);
+            var stepY = Integer.signum(endY - y);
+            var stepZ = Integer.signum(endZ - z);
+
+            var deltaX = stepX != 0 ? Math.abs(1 / directionX) : Double.POSITIVE_INFINITY;
+            var deltaY = stepY != 0 ? Math.abs(1 / directionY) : Double.POSITIVE_INFINITY;
+            var deltaZ = stepZ != 0 ? Math.abs(1 / directionZ) : Double.POSITIVE_INFINITY;
+
+            var maxX = boundary(fromX, x, stepX, directionX);
+            var maxY = boundary(fromY, y, stepY, directionY);
+            var maxZ = boundary(fromZ, z, stepZ, directionZ);
+
+            emit(x, y, z);
+            var steps = Math.abs(endX - x) + Math.abs(endY - y) + Math.abs(endZ - z);
+            for (var i = 0; i < steps; i++) {
+                if (maxX <= maxY && maxX <= maxZ) {
+                    x += stepX;
+                    maxX = x != endX ? maxX + deltaX : Double.POSITIVE_INFINITY;
+                } else if (maxY <= maxZ) {
+                    y += stepY;
+                    maxY = y != endY ? maxY + deltaY : Double.POSITIVE_INFINITY;
+                } else {
+                    z += stepZ;
+                    maxZ = z != endZ ? maxZ + deltaZ : Double.POSITIVE_INFINITY;
+                }
+                emit(x, y, z);
+            }
+        }
+
+        private void bresenham(int x, int y, int z, int endX, int endY, int endZ) {
+            var distanceX = Math.abs(endX - x);
+            var distanceY = Math.abs(endY - y);
+            var distanceZ = Math.abs(endZ - z);
+            var stepX = Integer.signum(endX - x);
+            var stepY = Integer.signum(endY - y);
+            var stepZ = Integer.signum(endZ - z);
+            var steps = Math.max(distanceX, Math.max(distanceY, distanceZ));
+            var errorX = steps / 2;
+            var errorY = steps / 2;
+            var errorZ = steps / 2;
+
+            emit(x, y, z);
+            for (var i = 0; i < steps; i++) {
+                errorX -= distanceX;
+                errorY -= distanceY;
+                errorZ -= distanceZ;
+                if (errorX < 0) {
+                    errorX += steps;
+                    x += stepX;
+                }
+                if (errorY < 0) {
+                    errorY += steps;
+                    y += stepY;
+                }
+                if (errorZ < 0) {
+                    errorZ += steps;
+                    z += stepZ;
+                }
+                emit(x, y, z);
+            }
+        }
+
+        private void emit(int x, int y, int z) {
+            for (var i = 0; i < disc.length; i += 2) {
+                var u = disc[i];
+                var v = disc[i + 1];
+                switch (axis) {
+                    case X -> add(x, y + u, z + v);
+                    case Y -> add(x + u, y, z + v);
+                    case Z -> add(x + u, y + v, z);
+                }
+            }
+        }
+
+        private void add(int x, int y, int z) {
+            var key = ((long) x & 0x3FFFFFF) << 38 | ((long) z & 0x3FFFFFF) << 12 | (y & 0xFFF);
+            if (visited.add(key)) path.add(x, y, z);
+        }
+
+        private static double boundary(double start, int voxel, int step, double direction) {
+            if (step > 0) return (voxel + 1 - start) / direction;
+            if (step < 0) return (voxel - start) / direction;
+            return Double.POSITIVE_INFINITY;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package net.thenextlvl.gopaint.api.math.curve;
+
+import com.sk89q.worldedit.math.BlockVector3;
+import net.thenextlvl.gopaint.api.math.IntTriConsumer;
+
+import java.util.Arrays;
+
+/**
+ * An immutable sequence of block offsets relative to an origin, without consecutive duplicates.
+ * <p>
+ * Since flooring commutes with integer translations, a curve rasterised relative to its first knot
+ * can be stamped at any block position and yields exactly the blocks of the translated curve.
+ *
+ * @see CurveRasterizer
+ */
+public final class VoxelPath {
+    private final int[] x, y, z;
+
+    private VoxelPath(int[] x, int[] y, int[] z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    /**
+     * Returns the amount of offsets in this path.
+     *
+     * @return the size of this path
+     */
+    public int size() {
+        return x.length;
+    }
+
+    /**
+     * Returns the x-offset at the given index.
+     *
+     * @param index the index of the offset
+     * @return the x-offset
+     */
+    public int getX(int index) {
+        return x[index];
+    }
+
+    /**
+     * Returns the y-offset at the given index.
+     *
+     * @param index the index of the offset
+     * @return the y-offset
+     */
+    public int getY(int index) {
+        return y[index];
+    }
+
+    /**
+     * Returns the z-offset at the given index.
+     *
+     * @param index the index of the offset
+     * @return the z-offset
+     */
+    public int getZ(int index) {
+        return z[index];
+    }
+
+    /**
+     * Translates all offsets of this path by the given origin, in path order.
+     *
+     * @param origin   the origin to translate the offsets by
+     * @param consumer the visitor receiving the absolute block coordinates
+     */
+    public void forEach(BlockVector3 origin, IntTriConsumer consumer) {
+        forEach(origin.getX(), origin.getY(), origin.getZ(), consumer);
+    }
+
+    /**
+     * Translates all offsets of this path by the given origin, in path order.
+     *
+     * @param originX  the x-coordinate of the origin
+     * @param originY  the y-coordinate of the origin
+     * @param originZ  the z-coordinate of the origin
+     * @param consumer the visitor receiving the absolute block coordinates
+     */
+    public void forEach(int originX, int originY, int originZ, IntTriConsumer consumer) {
+        for (var i = 0; i < x.length; i++) {
+            consumer.accept(originX + x[i], originY + y[i], originZ + z[i]);
+        }
+    }
+
+    /**
+     * A growable buffer collecting the offsets of a path, dropping consecutive duplicates.
+     */
+    static final class Builder {
+        private int[] x, y, z;
+        private int size;
+
+        Builder(int capacity) {
+            var initial = Math.max(1, capacity);
+            this.x = new int[initial];
+            this.y = new int[initial];
+            this.z = new int[initial];
+        }
+
+        void add(int x, int y, int z) {
+            if (size > 0 && this.x[size - 1] == x && this.y[size - 1] == y && this.z[size - 1] == z) return;
+            if (size == this.x.length) {
+                var capacity = size * 2;
+                this.x = Arrays.copyOf(this.x, capacity);
+                this.y = Arrays.copyOf(this.y, capacity);
+                this.z = Arrays.copyOf(this.z, capacity);
+            }
+            this.x[size] = x;
+            this.y[size] = y;
+            this.z[size] = z;
+            size++;
+        }
+
+        VoxelPath build() {
+            return new VoxelPath(Arrays.copyOf(x, size), Arrays.copyOf(y, size), Arrays.copyOf(z, size));
+        }
+    }
+}
@@ -9,6 +9,7 @@ public interface GoPaintProvider extends Plugin {
     String USE_PERMISSION = "gopaint.use";
     String ADMIN_PERMISSION = "gopaint.admin";
     String WORLD_BYPASS_PERMISSION = "gopaint.world.bypass";
+    String PRIORITY_PERMISSION = "gopaint.priority";
 
     ComponentBundle bundle();
 
@@ -12,7 +12,11 @@ public record PluginConfig(
         @SerializedName("brush") BrushConfig brushConfig,
         @SerializedName("thickness") ThicknessConfig thicknessConfig,
         @SerializedName("angle") AngleConfig angleConfig,
-        @SerializedName("fracture") FractureConfig fractureConfig
+        @SerializedName("fracture") FractureConfig fractureConfig,
+        @SerializedName("performance") PerformanceConfig performanceConfig,
+        @SerializedName("queue") QueueConfig queueConfig,
+        @SerializedName("executor") ExecutorConfig executorConfig,
+        @SerializedName("budget") BudgetConfig budgetConfig
 ) {
 
     public record BrushConfig(
@@ -29,7 +33,8 @@ public record PluginConfig(
             @SerializedName("default-mask") Material defaultMask,
             @SerializedName("mask") boolean mask,
             @SerializedName("surface-mode") SurfaceMode surfaceMode,
-            @SerializedName("default-blocks") List<Material> defaultBlocks
+            @SerializedName("default-blocks") List<Material> defaultBlocks,
+            @SerializedName("max-block-weight") int maxBlockWeight
     ) {
     }
 
@@ -50,7 +55,33 @@ public record PluginConfig(
 
     public record FractureConfig(
             @SerializedName("default-fracture-strength") int defaultFractureStrength,
-            @SerializedName("max-fracture-strength") int maxFractureStrength
+            @SerializedName("max-fracture-strength") int maxFractureStrength,
+            @SerializedName("window-average") boolean windowAverage
+    ) {
+    }
+
+    public record PerformanceConfig(
+            @SerializedName("offset-table-cache-size") int offsetTableCacheSize
+    ) {
+    }
+
+    public record QueueConfig(
+            @SerializedName("capacity") int capacity,
+            @SerializedName("full-policy") QueuePolicy fullPolicy
+    ) {
+    }
+
+    public record ExecutorConfig(
+            @SerializedName("workers") int workers,
+            @SerializedName("virtual-threads") boolean virtualThreads,
+            @SerializedName("priority-weight") int priorityWeight
+    ) {
+    }
+
+    public record BudgetConfig(
+            @SerializedName("blocks-per-tick") long blocksPerTick,
+            @SerializedName("mspt-threshold") double msptThreshold,
+            @SerializedName("minimum-factor") double minimumFactor
     ) {
     }
 }
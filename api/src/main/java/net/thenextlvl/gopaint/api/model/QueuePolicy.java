@@ -0,0 +1,21 @@
+package net.thenextlvl.gopaint.api.model;
+
+/**
+ * The policy applied when a player submits a stroke while their stroke queue is full.
+ */
+public enum QueuePolicy {
+    /**
+     * This enumeration represents that the oldest pending stroke is discarded to make room for the new one.
+     * Strokes that are already partially painted are never discarded. If there is no other, the stroke is rejected.
+     */
+    DROP_OLDEST,
+    /**
+     * This enumeration represents that the new stroke is merged into the newest pending stroke with the same settings,
+     * so it is painted within the same batch. If there is none, the stroke is rejected.
+     */
+    COALESCE,
+    /**
+     * This enumeration represents that the new stroke is rejected and the player is notified.
+     */
+    REJECT
+}
@@ -5,6 +5,7 @@ import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.Accessors;
 import net.kyori.adventure.translation.Translatable;
+import net.thenextlvl.gopaint.api.brush.mask.DepthBufferMask;
 import net.thenextlvl.gopaint.api.brush.mask.VisibleMask;
 
 @Getter
@@ -26,7 +27,14 @@ public enum SurfaceMode implements Translatable {
      *
      * @see VisibleMask
      */
-    VISIBLE("surface.mode.visible");
+    VISIBLE("surface.mode.visible"),
+    /**
+     * This enumeration represents an approximation of the original surface mode check, resolved through a depth buffer.
+     * It is faster for large brushes, but may disagree with {@link #VISIBLE} on blocks close to an occluding edge.
+     *
+     * @see DepthBufferMask
+     */
+    DEPTH("surface.mode.depth");
 
     private final String translationKey;
 }
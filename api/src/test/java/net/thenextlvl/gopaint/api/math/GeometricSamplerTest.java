@@ -0,0 +1,112 @@
+package net.thenextlvl.gopaint.api.math;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the geometric skips of the sampler select elements with the same distribution
+ * as the per-element rolls the spray brush used before.
+ * <p>
+ * Every trial samples a run of {@value #ELEMENTS} elements with its own seed, like every stroke does.
+ * The seeds are fixed, so the chi-square statistics are deterministic, and the critical values are taken
+ * at a significance level of {@code 0.0001}.
+ */
+class GeometricSamplerTest {
+    private static final int ELEMENTS = 64;
+    private static final int TRIALS = 20_000;
+    private static final double CRITICAL_Z = 3.719;
+
+    @ParameterizedTest
+    @ValueSource(doubles = {0.1, 0.3, 0.5, 0.9})
+    void selectsEveryElementWithTheSameProbability(double probability) {
+        var sampled = new long[ELEMENTS];
+        var rolled = new long[ELEMENTS];
+        for (var trial = 0; trial < TRIALS; trial++) {
+            var sampler = new GeometricSampler(trial, probability);
+            for (var index = sampler.nextSkip(); index < ELEMENTS; index += 1 + sampler.nextSkip()) {
+                sampled[index]++;
+            }
+            var random = new SplittableRandom(~trial);
+            for (var index = 0; index < ELEMENTS; index++) {
+                if (random.nextDouble() < probability) rolled[index]++;
+            }
+        }
+
+        var expected = TRIALS * probability;
+        var variance = expected * (1 - probability);
+        var sampledStatistic = 0d;
+        var rolledStatistic = 0d;
+        for (var index = 0; index < ELEMENTS; index++) {
+            sampledStatistic += Math.pow(sampled[index] - expected, 2) / variance;
+            rolledStatistic += Math.pow(rolled[index] - expected, 2) / variance;
+        }
+        assertTrue(rolledStatistic < getCriticalValue(ELEMENTS), "per-element rolls: " + rolledStatistic);
+        assertTrue(sampledStatistic < getCriticalValue(ELEMENTS), "geometric skips: " + sampledStatistic);
+    }
+
+    @ParameterizedTest
+    @ValueSource(doubles = {0.1, 0.3, 0.5, 0.9})
+    void selectsBinomiallyManyElements(double probability) {
+        var counts = new long[ELEMENTS + 1];
+        for (var trial = 0; trial < TRIALS; trial++) {
+            var sampler = new GeometricSampler(trial, probability);
+            var selected = 0;
+            for (var index = sampler.nextSkip(); index < ELEMENTS; index += 1 + sampler.nextSkip()) {
+                selected++;
+            }
+            counts[selected]++;
+        }
+
+        // pool the tails of the binomial distribution until every bin expects at least five trials
+        var statistic = 0d;
+        var bins = 0;
+        var observed = 0L;
+        var expected = 0d;
+        for (var selected = 0; selected <= ELEMENTS; selected++) {
+            observed += counts[selected];
+            expected += TRIALS * getBinomial(selected, probability);
+            var remaining = 0d;
+            for (var rest = selected + 1; rest <= ELEMENTS; rest++) {
+                remaining += TRIALS * getBinomial(rest, probability);
+            }
+            if (expected < 5 || (remaining < 5 && selected < ELEMENTS)) continue;
+            statistic += Math.pow(observed - expected, 2) / expected;
+            observed = 0;
+            expected = 0;
+            bins++;
+        }
+        assertTrue(bins > 1, "not enough bins");
+        assertTrue(statistic < getCriticalValue(bins - 1), "selected elements: " + statistic);
+    }
+
+    @Test
+    void selectsEveryElementWithCertainty() {
+        var sampler = new GeometricSampler(0, 1);
+        for (var index = 0; index < ELEMENTS; index++) {
+            assertEquals(0, sampler.nextSkip());
+        }
+    }
+
+    private static double getBinomial(int selected, double probability) {
+        var logCoefficient = 0d;
+        for (var i = 1; i <= selected; i++) {
+            logCoefficient += Math.log(ELEMENTS - selected + i) - Math.log(i);
+        }
+        return Math.exp(logCoefficient + selected * Math.log(probability)
+                        + (ELEMENTS - selected) * Math.log1p(-probability));
+    }
+
+    /**
+     * Approximates the critical value of the chi-square distribution using the Wilson-Hilferty transformation.
+     */
+    private static double getCriticalValue(int degreesOfFreedom) {
+        var scale = 2d / (9 * degreesOfFreedom);
+        return degreesOfFreedom * Math.pow(1 - scale + CRITICAL_Z * Math.sqrt(scale), 3);
+    }
+}
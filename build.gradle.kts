@@ -61,6 +61,9 @@ paper {
         register("gopaint.world.bypass") {
             default = BukkitPluginDescription.Permission.Default.OP
         }
+        register("gopaint.priority") {
+            default = BukkitPluginDescription.Permission.Default.FALSE
+        }
     }
 }
 
@@ -15,8 +15,10 @@ import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
 import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
 import net.thenextlvl.gopaint.api.brush.BrushController;
 import net.thenextlvl.gopaint.api.brush.BrushRegistry;
+import net.thenextlvl.gopaint.api.math.OffsetTables;
 import net.thenextlvl.gopaint.api.model.GoPaintProvider;
 import net.thenextlvl.gopaint.api.model.PluginConfig;
+import net.thenextlvl.gopaint.api.model.QueuePolicy;
 import net.thenextlvl.gopaint.api.model.SurfaceMode;
 import net.thenextlvl.gopaint.brush.CraftBrushController;
 import net.thenextlvl.gopaint.brush.CraftBrushRegistry;
@@ -24,6 +26,10 @@ import net.thenextlvl.gopaint.command.GoPaintCommand;
 import net.thenextlvl.gopaint.listener.ConnectListener;
 import net.thenextlvl.gopaint.listener.InteractListener;
 import net.thenextlvl.gopaint.listener.InventoryListener;
+import net.thenextlvl.gopaint.stroke.BlockBudget;
+import net.thenextlvl.gopaint.stroke.DragPainter;
+import net.thenextlvl.gopaint.stroke.StrokeExecutor;
+import net.thenextlvl.gopaint.stroke.StrokeScheduler;
 import org.bstats.bukkit.Metrics;
 import org.bukkit.Axis;
 import org.bukkit.Bukkit;
@@ -53,14 +59,22 @@ public class GoPaintPlugin extends JavaPlugin implements GoPaintProvider {
 
     private final @Getter BrushController brushController = new CraftBrushController(this);
     private final @Getter BrushRegistry brushRegistry = new CraftBrushRegistry(this);
+    private final @Getter StrokeScheduler strokeScheduler = new StrokeScheduler(this);
+    private final @Getter DragPainter dragPainter = new DragPainter(this);
+    private final @Getter StrokeExecutor strokeExecutor = new StrokeExecutor(getLogger());
+    private final @Getter BlockBudget blockBudget = new BlockBudget(getServer());
 
     private final FileIO<PluginConfig> configFile = new GsonFile<>(IO.of(getDataFolder(), "config.json"), new PluginConfig(
             new PluginConfig.BrushConfig(Material.FEATHER, new NamespacedKey("gopaint", "sphere_brush"), 100, 10, 50,
                     Axis.Y, 50, 50, Set.of("disabled"), true, Material.SPONGE, true, SurfaceMode.EXPOSED,
-                    List.of(Material.STONE)),
+                    List.of(Material.STONE), 64),
             new PluginConfig.ThicknessConfig(1, 5),
             new PluginConfig.AngleConfig(2, 5, 10, 40, 85),
-            new PluginConfig.FractureConfig(2, 5)
+            new PluginConfig.FractureConfig(2, 5, false),
+            new PluginConfig.PerformanceConfig(32),
+            new PluginConfig.QueueConfig(8, QueuePolicy.COALESCE),
+            new PluginConfig.ExecutorConfig(2, false, 2),
+            new PluginConfig.BudgetConfig(50_000, 40, 0.1)
     ), new GsonBuilder()
             .registerTypeAdapter(Material.class, MaterialAdapter.NotNull.INSTANCE)
             .registerTypeAdapter(Key.class, KeyAdapter.Kyori.INSTANCE)
@@ -76,18 +90,41 @@ public class GoPaintPlugin extends JavaPlugin implements GoPaintProvider {
 
     @Override
     public void onEnable() {
+        validateConfig();
+        applyPerformanceConfig();
+        strokeExecutor().start(config().executorConfig().workers(), config().executorConfig().virtualThreads());
         registerListeners();
         registerCommands();
+        getServer().getScheduler().runTaskTimer(this, dragPainter(), 1, 1);
+        getServer().getScheduler().runTaskTimer(this, blockBudget(), 1, 1);
     }
 
     @Override
     public void onDisable() {
+        var discarded = strokeScheduler().shutdown();
+        strokeExecutor().shutdown();
+        blockBudget().configure(0, 0, 1);
+        if (discarded > 0) getLogger().warning("Discarded " + discarded + " pending strokes on shutdown");
         metrics.shutdown();
     }
 
     @Override
     public void reloadConfig() {
         configFile.reload();
+        validateConfig();
+        applyPerformanceConfig();
+    }
+
+    private void validateConfig() {
+        if (config().brushConfig().maxBlockWeight() >= 1) return;
+        getLogger().warning("max-block-weight must be at least 1, using 1 instead of "
+                            + config().brushConfig().maxBlockWeight());
+    }
+
+    private void applyPerformanceConfig() {
+        OffsetTables.setMaximumSize(config().performanceConfig().offsetTableCacheSize());
+        var budget = config().budgetConfig();
+        blockBudget().configure(budget.blocksPerTick(), budget.msptThreshold(), budget.minimumFactor());
     }
 
     private void registerServices() {
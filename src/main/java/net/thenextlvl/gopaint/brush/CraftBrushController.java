@@ -22,6 +22,7 @@ import lombok.RequiredArgsConstructor;
 import net.kyori.adventure.key.Key;
 import net.thenextlvl.gopaint.GoPaintPlugin;
 import net.thenextlvl.gopaint.api.brush.BrushController;
+import net.thenextlvl.gopaint.api.brush.setting.BlockPalette;
 import net.thenextlvl.gopaint.api.brush.setting.ItemBrushSettings;
 import net.thenextlvl.gopaint.api.brush.setting.PlayerBrushSettings;
 import net.thenextlvl.gopaint.api.model.SurfaceMode;
@@ -89,13 +90,20 @@ public class CraftBrushController implements BrushController {
         var mask = Optional.ofNullable(container.get(new NamespacedKey("gopaint", "mask"), PersistentDataType.STRING))
                 .map(Material::matchMaterial)
                 .orElseThrow();
-        var blocks = Optional.ofNullable(container.get(new NamespacedKey("gopaint", "blocks"), PersistentDataType.STRING))
+        var materials = Optional.ofNullable(container.get(new NamespacedKey("gopaint", "blocks"), PersistentDataType.STRING))
                 .map(string -> string.split(","))
-                .stream()
-                .flatMap(Arrays::stream)
-                .map(Material::matchMaterial)
-                .filter(Objects::nonNull)
-                .toList();
+                .orElseGet(() -> new String[0]);
+        var storedWeights = container.get(new NamespacedKey("gopaint", "weights"), PersistentDataType.INTEGER_ARRAY);
+
+        var blocks = new ArrayList<Material>();
+        var weights = new ArrayList<Integer>();
+        for (var i = 0; i < materials.length; i++) {
+            var material = Material.matchMaterial(materials[i]);
+            if (material == null) continue;
+            blocks.add(material);
+            weights.add(storedWeights != null && storedWeights.length == materials.length
+                    ? Math.max(1, storedWeights[i]) : 1);
+        }
 
         return Optional.of(CraftItemBrushSettings.builder()
                 .brushSize(brushSize)
@@ -111,7 +119,9 @@ public class CraftBrushController implements BrushController {
                 .angleHeightDifference(angleHeightDifference)
                 .axis(axis)
                 .mask(mask)
-                .blocks(blocks).build());
+                .blocks(blocks)
+                .weights(weights)
+                .palette(BlockPalette.of(blocks, weights)).build());
     }
 
     @Override
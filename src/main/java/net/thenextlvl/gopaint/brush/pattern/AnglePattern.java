@@ -7,24 +7,35 @@ import com.sk89q.worldedit.extent.Extent;
 import com.sk89q.worldedit.math.BlockVector3;
 import net.thenextlvl.gopaint.api.brush.pattern.BuildPattern;
 import net.thenextlvl.gopaint.api.brush.setting.BrushSettings;
-import net.thenextlvl.gopaint.api.math.Height;
-import net.thenextlvl.gopaint.api.model.Block;
+import net.thenextlvl.gopaint.api.math.HeightMap;
+import net.thenextlvl.gopaint.api.math.SlopeField;
 
 public record AnglePattern(
         EditSession session,
         BlockVector3 position,
         Player player,
-        BrushSettings settings
+        BrushSettings settings,
+        SlopeField surfaceSlopes,
+        SlopeField angleSlopes,
+        double maxSlope
 ) implements BuildPattern {
 
+    public AnglePattern(EditSession session, BlockVector3 position, Player player, BrushSettings settings) {
+        this(session, position, player, settings, new HeightMap(session, position,
+                (settings.getBrushSize() + 1) / 2 + Math.max(1, settings.getAngleDistance())));
+    }
+
+    private AnglePattern(EditSession session, BlockVector3 position, Player player, BrushSettings settings, HeightMap heightMap) {
+        this(session, position, player, settings,
+                new SlopeField(heightMap, position, (settings.getBrushSize() + 1) / 2, 1),
+                new SlopeField(heightMap, position, (settings.getBrushSize() + 1) / 2, settings.getAngleDistance()),
+                Math.tan(Math.toRadians(settings.getAngleHeightDifference())));
+    }
+
     @Override
     public boolean apply(Extent extent, BlockVector3 get, BlockVector3 set) throws WorldEditException {
-        var block = new Block(applyBlock(get), set, extent);
-
-        if (Height.getAverageHeightDiffAngle(block, 1) < 0.1) return false;
-        if (Height.getAverageHeightDiffAngle(block, settings().getAngleDistance())
-            >= Math.tan(Math.toRadians(settings().getAngleHeightDifference()))
-        ) return false;
+        if (surfaceSlopes().getSlope(set.getX(), set.getY(), set.getZ()) < 0.1) return false;
+        if (angleSlopes().getSlope(set.getX(), set.getY(), set.getZ()) >= maxSlope()) return false;
 
         return set.setBlock(extent, getRandomBlockState());
     }
@@ -8,26 +8,50 @@ import com.sk89q.worldedit.math.BlockVector3;
 import net.thenextlvl.gopaint.api.brush.pattern.BuildPattern;
 import net.thenextlvl.gopaint.api.brush.setting.BrushSettings;
 import net.thenextlvl.gopaint.api.math.Height;
-import net.thenextlvl.gopaint.api.model.Block;
+import net.thenextlvl.gopaint.api.math.HeightMap;
+import net.thenextlvl.gopaint.api.math.SummedAreaTable;
+import org.jetbrains.annotations.Nullable;
 
 public record FracturePattern(
         EditSession session,
         BlockVector3 position,
         Player player,
-        BrushSettings settings
+        BrushSettings settings,
+        HeightMap heightMap,
+        @Nullable SummedAreaTable heights
 ) implements BuildPattern {
 
+    public FracturePattern(EditSession session, BlockVector3 position, Player player, BrushSettings settings) {
+        this(session, position, player, settings, false);
+    }
+
+    public FracturePattern(EditSession session, BlockVector3 position, Player player, BrushSettings settings, boolean windowAverage) {
+        this(session, position, player, settings, new HeightMap(session, position,
+                getRadius(settings)), windowAverage);
+    }
+
+    private FracturePattern(EditSession session, BlockVector3 position, Player player, BrushSettings settings, HeightMap heightMap, boolean windowAverage) {
+        this(session, position, player, settings, heightMap,
+                windowAverage ? SummedAreaTable.ofHeights(heightMap, position, getRadius(settings)) : null);
+    }
+
     @Override
     public boolean apply(Extent extent, BlockVector3 get, BlockVector3 set) throws WorldEditException {
-        var block = new Block(applyBlock(get), set, extent);
-
-        if (Height.getAverageHeightDiffFracture(block,
-                Height.getNearestNonEmptyBlock(block), 1
-        ) < 0.1) return false;
-        if (Height.getAverageHeightDiffFracture(block,
-                Height.getNearestNonEmptyBlock(block), settings.getFractureStrength()
-        ) < 0.1) return false;
+        var height = heightMap().getHeight(set.getX(), set.getY(), set.getZ());
+        if (getFracture(set, height, 1) < 0.1) return false;
+        if (getFracture(set, height, settings.getFractureStrength()) < 0.1) return false;
 
         return set.setBlock(extent, getRandomBlockState());
     }
+
+    private double getFracture(BlockVector3 block, int height, int distance) {
+        if (heights() != null) return Height.getAverageHeightDiffFracture(heights(),
+                block.getX(), block.getZ(), height, distance);
+        return Height.getAverageHeightDiffFracture(heightMap(),
+                block.getX(), block.getY(), block.getZ(), height, distance);
+    }
+
+    private static int getRadius(BrushSettings settings) {
+        return (settings.getBrushSize() + 1) / 2 + Math.max(1, settings.getFractureStrength());
+    }
 }
@@ -2,44 +2,44 @@ package net.thenextlvl.gopaint.brush.pattern;
 
 import com.sk89q.worldedit.EditSession;
 import com.sk89q.worldedit.WorldEditException;
-import com.sk89q.worldedit.bukkit.BukkitAdapter;
 import com.sk89q.worldedit.entity.Player;
 import com.sk89q.worldedit.extent.Extent;
 import com.sk89q.worldedit.math.BlockVector3;
 import com.sk89q.worldedit.world.block.BlockState;
 import net.thenextlvl.gopaint.api.brush.pattern.BuildPattern;
 import net.thenextlvl.gopaint.api.brush.setting.BrushSettings;
-
-import java.util.Objects;
+import net.thenextlvl.gopaint.api.math.CoordinateRandom;
+import net.thenextlvl.gopaint.api.math.FalloffKernel;
+import net.thenextlvl.gopaint.api.math.GradientBands;
 
 public record GradientPattern(
         EditSession session,
         BlockVector3 position,
         Player player,
-        BrushSettings settings
+        BrushSettings settings,
+        CoordinateRandom random,
+        FalloffKernel falloff,
+        GradientBands bands
 ) implements BuildPattern {
 
-    @Override
-    public boolean apply(Extent extent, BlockVector3 get, BlockVector3 set) throws WorldEditException {
-        if (settings().getRandom().nextDouble() <= getRate(set)) return false;
-        return set.setBlock(extent, getRandomBlockState(set.getY()));
+    public GradientPattern(EditSession session, BlockVector3 position, Player player, BrushSettings settings) {
+        this(session, position, player, settings, settings.createStrokeRandom(), FalloffKernel.linear(
+                settings.getBrushSize(), settings.getFalloffStrength(), settings.getBrushSize() / 2d
+        ), GradientBands.of(settings.getPalette(), settings.getAxis(), position,
+                settings.getBrushSize(), settings.getMixingStrength()));
     }
 
-    public BlockState getRandomBlockState(int altitude) {
-        var index = Math.clamp(getRandom(altitude), 0, settings().getBlocks().size() - 1);
-        var block = BukkitAdapter.asBlockType(settings().getBlocks().get(index));
-        return Objects.requireNonNull(block).getDefaultState();
-    }
-
-    private int getRandom(int altitude) {
-        if (settings().getBlocks().size() == 1) return 1;
-        var y = position().getY() - (settings().getBrushSize() / 2d);
-        var _y = (altitude - y) / settings().getBrushSize() * settings().getBlocks().size();
-        return (int) (_y + (settings().getRandom().nextDouble() * 2 - 1) * (settings().getMixingStrength() / 100d));
+    @Override
+    public boolean apply(Extent extent, BlockVector3 get, BlockVector3 set) throws WorldEditException {
+        var rate = falloff.getRate(position.getX(), position.getY(), position.getZ(), set.getX(), set.getY(), set.getZ());
+        if (random.nextDouble(set.getX(), set.getY(), set.getZ(), 1) <= rate) return false;
+        return set.setBlock(extent, getRandomBlockState(set));
     }
 
-    private double getRate(BlockVector3 position) {
-        var size = settings().getBrushSize() * ((100d - settings().getFalloffStrength()) / 100d);
-        return (position.distance(position()) - size) / (settings().getBrushSize() - size);
+    public BlockState getRandomBlockState(BlockVector3 block) {
+        var palette = settings().getPalette();
+        if (palette.size() == 1) return palette.getState(0);
+        var mixing = random.nextDouble(block.getX(), block.getY(), block.getZ(), 2);
+        return palette.getState(bands.getIndex(block.getX(), block.getY(), block.getZ(), mixing));
     }
 }
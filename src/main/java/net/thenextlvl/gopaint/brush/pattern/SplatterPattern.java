@@ -7,23 +7,28 @@ import com.sk89q.worldedit.extent.Extent;
 import com.sk89q.worldedit.math.BlockVector3;
 import net.thenextlvl.gopaint.api.brush.pattern.BuildPattern;
 import net.thenextlvl.gopaint.api.brush.setting.BrushSettings;
+import net.thenextlvl.gopaint.api.math.CoordinateRandom;
+import net.thenextlvl.gopaint.api.math.FalloffKernel;
 
 public record SplatterPattern(
         EditSession session,
         BlockVector3 position,
         Player player,
-        BrushSettings settings
+        BrushSettings settings,
+        CoordinateRandom random,
+        FalloffKernel falloff
 ) implements BuildPattern {
 
-    @Override
-    public boolean apply(Extent extent, BlockVector3 get, BlockVector3 set) throws WorldEditException {
-        if (settings().getRandom().nextDouble() <= getRate(set)) return false;
-        return set.setBlock(extent, getRandomBlockState());
+    public SplatterPattern(EditSession session, BlockVector3 position, Player player, BrushSettings settings) {
+        this(session, position, player, settings, settings.createStrokeRandom(), FalloffKernel.linear(
+                settings.getBrushSize(), settings.getFalloffStrength(), settings.getBrushSize() / 2d
+        ));
     }
 
-    private double getRate(BlockVector3 position) {
-        var size = (double) settings().getBrushSize();
-        var falloff = (100.0 - (double) settings().getFalloffStrength()) / 100.0;
-        return (position.distance(position()) - size * falloff) / (size - size * falloff);
+    @Override
+    public boolean apply(Extent extent, BlockVector3 get, BlockVector3 set) throws WorldEditException {
+        var rate = falloff.getRate(position.getX(), position.getY(), position.getZ(), set.getX(), set.getY(), set.getZ());
+        if (random.nextDouble(set.getX(), set.getY(), set.getZ(), 1) <= rate) return false;
+        return set.setBlock(extent, getRandomBlockState(random, set));
     }
 }
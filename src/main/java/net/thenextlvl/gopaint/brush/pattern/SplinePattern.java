@@ -2,7 +2,6 @@ package net.thenextlvl.gopaint.brush.pattern;
 
 import com.sk89q.worldedit.EditSession;
 import com.sk89q.worldedit.WorldEditException;
-import com.sk89q.worldedit.bukkit.BukkitAdapter;
 import com.sk89q.worldedit.entity.Player;
 import com.sk89q.worldedit.extent.Extent;
 import com.sk89q.worldedit.math.BlockVector3;
@@ -14,8 +13,6 @@ import lombok.experimental.Accessors;
 import net.thenextlvl.gopaint.api.brush.pattern.BuildPattern;
 import net.thenextlvl.gopaint.api.brush.setting.BrushSettings;
 
-import java.util.Objects;
-
 @Getter
 @Setter
 @RequiredArgsConstructor
@@ -35,8 +32,7 @@ public class SplinePattern implements BuildPattern {
 
     @Override
     public BlockState getRandomBlockState() {
-        var index = Math.clamp(random(), 0, settings().getBlocks().size() - 1);
-        var block = BukkitAdapter.asBlockType(settings().getBlocks().get(index));
-        return Objects.requireNonNull(block).getDefaultState();
+        var palette = settings().getPalette();
+        return palette.getState(Math.clamp(random(), 0, palette.size() - 1));
     }
 }
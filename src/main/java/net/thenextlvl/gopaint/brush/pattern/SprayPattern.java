@@ -7,17 +7,22 @@ import com.sk89q.worldedit.extent.Extent;
 import com.sk89q.worldedit.math.BlockVector3;
 import net.thenextlvl.gopaint.api.brush.pattern.BuildPattern;
 import net.thenextlvl.gopaint.api.brush.setting.BrushSettings;
+import net.thenextlvl.gopaint.api.math.CoordinateRandom;
 
 public record SprayPattern(
         EditSession session,
         BlockVector3 position,
         Player player,
-        BrushSettings settings
+        BrushSettings settings,
+        CoordinateRandom random
 ) implements BuildPattern {
 
+    public SprayPattern(EditSession session, BlockVector3 position, Player player, BrushSettings settings) {
+        this(session, position, player, settings, settings.createStrokeRandom());
+    }
+
     @Override
     public boolean apply(Extent extent, BlockVector3 get, BlockVector3 set) throws WorldEditException {
-        if (settings.getRandom().nextInt(100) < settings.getChance()) return false;
-        return set.setBlock(extent, getRandomBlockState());
+        return set.setBlock(extent, getRandomBlockState(random, set));
     }
 }
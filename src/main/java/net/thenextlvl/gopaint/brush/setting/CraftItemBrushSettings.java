@@ -19,8 +19,11 @@
 package net.thenextlvl.gopaint.brush.setting;
 
 import lombok.Builder;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import net.thenextlvl.gopaint.api.brush.PatternBrush;
+import net.thenextlvl.gopaint.api.brush.setting.BlockPalette;
+import net.thenextlvl.gopaint.api.brush.setting.BrushSettings;
 import net.thenextlvl.gopaint.api.brush.setting.ItemBrushSettings;
 import net.thenextlvl.gopaint.api.model.SurfaceMode;
 import org.bukkit.Axis;
@@ -30,11 +33,14 @@ import java.util.List;
 import java.util.Random;
 
 @Getter
+@EqualsAndHashCode
 @Builder(builderClassName = "Builder")
 public final class CraftItemBrushSettings implements ItemBrushSettings {
     private final PatternBrush brush;
     private final Material mask;
     private final List<Material> blocks;
+    private final List<Integer> weights;
+    private final @EqualsAndHashCode.Exclude BlockPalette palette;
     private final Axis axis;
     private final SurfaceMode surfaceMode;
     private final boolean maskEnabled;
@@ -49,6 +55,33 @@ public final class CraftItemBrushSettings implements ItemBrushSettings {
 
     private static final Random random = new Random();
 
+    /**
+     * Creates an immutable copy of the given settings, or returns them if they already are immutable.
+     *
+     * @param settings the settings to copy
+     * @return the immutable settings
+     */
+    public static CraftItemBrushSettings copyOf(BrushSettings settings) {
+        if (settings instanceof CraftItemBrushSettings itemSettings) return itemSettings;
+        return builder()
+                .brushSize(settings.getBrushSize())
+                .maskEnabled(settings.isMaskEnabled())
+                .surfaceMode(settings.getSurfaceMode())
+                .brush(settings.getBrush())
+                .chance(settings.getChance())
+                .thickness(settings.getThickness())
+                .fractureStrength(settings.getFractureStrength())
+                .angleDistance(settings.getAngleDistance())
+                .falloffStrength(settings.getFalloffStrength())
+                .mixingStrength(settings.getMixingStrength())
+                .angleHeightDifference(settings.getAngleHeightDifference())
+                .axis(settings.getAxis())
+                .mask(settings.getMask())
+                .blocks(List.copyOf(settings.getBlocks()))
+                .weights(List.copyOf(settings.getWeights()))
+                .palette(settings.getPalette()).build();
+    }
+
     @Override
     public Random getRandom() {
         return random;
@@ -26,6 +26,7 @@ import net.kyori.adventure.text.JoinConfiguration;
 import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
 import net.thenextlvl.gopaint.GoPaintPlugin;
 import net.thenextlvl.gopaint.api.brush.PatternBrush;
+import net.thenextlvl.gopaint.api.brush.setting.BlockPalette;
 import net.thenextlvl.gopaint.api.brush.setting.ItemBrushSettings;
 import net.thenextlvl.gopaint.api.brush.setting.PlayerBrushSettings;
 import net.thenextlvl.gopaint.api.model.SurfaceMode;
@@ -45,6 +46,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @Getter
 public final class CraftPlayerBrushSettings implements PlayerBrushSettings {
@@ -54,6 +56,7 @@ public final class CraftPlayerBrushSettings implements PlayerBrushSettings {
     private final Player player;
 
     private boolean enabled;
+    private boolean dragEnabled;
     private int brushSize;
     private int chance;
     private int thickness;
@@ -69,6 +72,8 @@ public final class CraftPlayerBrushSettings implements PlayerBrushSettings {
     private PatternBrush brush;
     private Material mask;
     private final List<Material> blocks = new ArrayList<>();
+    private final List<Integer> weights = new ArrayList<>();
+    private BlockPalette palette = BlockPalette.EMPTY;
 
     private final MainMenu mainMenu;
 
@@ -94,6 +99,8 @@ public final class CraftPlayerBrushSettings implements PlayerBrushSettings {
         brushSize = plugin.config().brushConfig().defaultSize();
         mask = plugin.config().brushConfig().defaultMask();
         blocks.addAll(plugin.config().brushConfig().defaultBlocks());
+        blocks.forEach(block -> weights.add(1));
+        palette = BlockPalette.of(blocks, weights);
 
         mainMenu = new MainMenu(plugin, this, player);
     }
@@ -115,10 +122,18 @@ public final class CraftPlayerBrushSettings implements PlayerBrushSettings {
         mainMenu.updateToggle();
     }
 
+    @Override
+    public void setDragEnabled(boolean enabled) {
+        this.dragEnabled = enabled;
+    }
+
     @Override
     public void addBlock(Material type, int slot) {
-        if (blocks.size() < slot) blocks.add(type);
-        else blocks.set(slot - 1, type);
+        if (blocks.size() < slot) {
+            blocks.add(type);
+            weights.add(1);
+        } else blocks.set(slot - 1, type);
+        palette = BlockPalette.of(blocks, weights);
         mainMenu.updateBlockPalette();
     }
 
@@ -126,6 +141,8 @@ public final class CraftPlayerBrushSettings implements PlayerBrushSettings {
     public void removeBlock(int slot) {
         if (blocks.size() < slot) return;
         blocks.remove(slot - 1);
+        weights.remove(slot - 1);
+        palette = BlockPalette.of(blocks, weights);
         mainMenu.updateBlockPalette();
     }
 
@@ -203,9 +220,21 @@ public final class CraftPlayerBrushSettings implements PlayerBrushSettings {
     }
 
     @Override
-    public void setBlocks(List<Material> blocks) {
+    public void setBlocks(List<Material> blocks, List<Integer> weights) {
+        var palette = BlockPalette.of(blocks, weights);
         this.blocks.clear();
         this.blocks.addAll(blocks);
+        this.weights.clear();
+        this.weights.addAll(weights);
+        this.palette = palette;
+        mainMenu.updateBlockPalette();
+    }
+
+    @Override
+    public void setWeight(int slot, @Range(from = 1, to = Integer.MAX_VALUE) int weight) {
+        if (blocks.size() < slot) return;
+        weights.set(slot - 1, Math.clamp(weight, 1, Math.max(1, plugin.config().brushConfig().maxBlockWeight())));
+        palette = BlockPalette.of(blocks, weights);
         mainMenu.updateBlockPalette();
     }
 
@@ -257,6 +286,8 @@ public final class CraftPlayerBrushSettings implements PlayerBrushSettings {
             lore.add(plugin.bundle().component(player, "brush.exported.falloff",
                     Placeholder.parsed("falloff", String.valueOf(getFalloffStrength()))));
         } else if (getBrush() instanceof GradientBrush) {
+            lore.add(plugin.bundle().component(player, "brush.exported.axis",
+                    Placeholder.parsed("axis", getAxis().name())));
             lore.add(plugin.bundle().component(player, "brush.exported.mixing",
                     Placeholder.parsed("mixing", String.valueOf(getMixingStrength()))));
             lore.add(plugin.bundle().component(player, "brush.exported.falloff",
@@ -266,10 +297,11 @@ public final class CraftPlayerBrushSettings implements PlayerBrushSettings {
                     Placeholder.parsed("fracture", String.valueOf(getFractureStrength()))));
         }
         if (!blocks.isEmpty()) {
-            var blocks = getBlocks().stream()
-                    .map(Material::translationKey)
-                    .map(Component::translatable)
-                    .toList();
+            var uniform = weights.stream().distinct().count() == 1;
+            var blocks = IntStream.range(0, getBlocks().size()).mapToObj(index -> {
+                var block = Component.translatable(getBlocks().get(index).translationKey());
+                return uniform ? block : block.append(Component.text(" x" + getWeights().get(index)));
+            }).toList();
             lore.add(plugin.bundle().component(player, "brush.exported.blocks",
                     Placeholder.component("blocks", Component.join(JoinConfiguration.commas(true), blocks))));
         }
@@ -310,6 +342,9 @@ public final class CraftPlayerBrushSettings implements PlayerBrushSettings {
                     .map(Material::key)
                     .map(Key::asString)
                     .collect(Collectors.joining(",")));
+            container.set(new NamespacedKey("gopaint", "weights"), PersistentDataType.INTEGER_ARRAY, getWeights().stream()
+                    .mapToInt(Integer::intValue)
+                    .toArray());
         });
     }
 
@@ -328,6 +363,6 @@ public final class CraftPlayerBrushSettings implements PlayerBrushSettings {
         setSurfaceMode(settings.getSurfaceMode());
         setBrush(settings.getBrush());
         setMask(settings.getMask());
-        setBlocks(settings.getBlocks());
+        setBlocks(settings.getBlocks(), settings.getWeights());
     }
 }
@@ -28,7 +28,6 @@ import net.kyori.adventure.text.Component;
 import net.thenextlvl.gopaint.api.brush.PatternBrush;
 import net.thenextlvl.gopaint.api.brush.setting.BrushSettings;
 import net.thenextlvl.gopaint.api.math.ConnectedBlocks;
-import net.thenextlvl.gopaint.api.math.Sphere;
 import net.thenextlvl.gopaint.api.model.GoPaintProvider;
 import net.thenextlvl.gopaint.brush.pattern.ShufflePattern;
 import org.bukkit.NamespacedKey;
@@ -61,8 +60,7 @@ public class BucketBrush extends PatternBrush {
 
     @Override
     public void build(EditSession session, BlockVector3 position, Pattern pattern, double size) throws MaxChangedBlocksException {
-        var blocks = Sphere.getBlocksInRadius(position, size);
-        ConnectedBlocks.getConnectedBlocks(session.getWorld(), position, blocks)
-                .forEach(vector3 -> session.setBlock(vector3, pattern));
+        ConnectedBlocks.forEachConnectedBlock(session.getWorld(), position, size,
+                (x, y, z) -> session.setBlock(x, y, z, pattern));
     }
 }
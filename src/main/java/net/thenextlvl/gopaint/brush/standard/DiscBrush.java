@@ -27,6 +27,7 @@ import net.kyori.adventure.audience.Audience;
 import net.kyori.adventure.text.Component;
 import net.thenextlvl.gopaint.api.brush.PatternBrush;
 import net.thenextlvl.gopaint.api.brush.setting.BrushSettings;
+import net.thenextlvl.gopaint.api.math.OffsetTables;
 import net.thenextlvl.gopaint.api.model.GoPaintProvider;
 import net.thenextlvl.gopaint.api.brush.pattern.BuildPattern;
 import net.thenextlvl.gopaint.brush.pattern.ShufflePattern;
@@ -61,7 +62,12 @@ public class DiscBrush extends PatternBrush {
     @Override
     public void build(EditSession session, BlockVector3 position, Pattern pattern, double size) throws MaxChangedBlocksException {
         if (!(pattern instanceof BuildPattern buildPattern)) return;
-        switch (buildPattern.settings().getAxis()) {
+        var axis = buildPattern.settings().getAxis();
+        if (OffsetTables.isCacheable(size)) {
+            OffsetTables.disc(size, axis).forEach(position, (x, y, z) -> session.setBlock(x, y, z, pattern));
+            return;
+        }
+        switch (axis) {
             case X -> session.makeSphere(position, pattern, 0, size, size, true);
             case Y -> session.makeSphere(position, pattern, size, 0, size, true);
             case Z -> session.makeSphere(position, pattern, size, size, 0, true);
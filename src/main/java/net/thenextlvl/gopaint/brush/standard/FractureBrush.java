@@ -53,6 +53,7 @@ public class FractureBrush extends SpherePatternBrush {
 
     @Override
     public Pattern buildPattern(EditSession session, BlockVector3 position, Player player, BrushSettings settings) {
-        return new FracturePattern(session, position, player, settings);
+        var windowAverage = provider.config().fractureConfig().windowAverage();
+        return new FracturePattern(session, position, player, settings, windowAverage);
     }
 }
@@ -18,7 +18,6 @@
  */
 package net.thenextlvl.gopaint.brush.standard;
 
-import com.fastasyncworldedit.core.math.MutableBlockVector3;
 import com.sk89q.worldedit.EditSession;
 import com.sk89q.worldedit.MaxChangedBlocksException;
 import com.sk89q.worldedit.bukkit.BukkitPlayer;
@@ -30,8 +29,10 @@ import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
 import net.thenextlvl.gopaint.api.brush.PatternBrush;
 import net.thenextlvl.gopaint.api.brush.setting.BrushSettings;
+import net.thenextlvl.gopaint.api.math.FalloffKernel;
 import net.thenextlvl.gopaint.api.math.Sphere;
 import net.thenextlvl.gopaint.api.math.curve.BezierSpline;
+import net.thenextlvl.gopaint.api.math.curve.CurveRasterizer;
 import net.thenextlvl.gopaint.api.model.GoPaintProvider;
 import net.thenextlvl.gopaint.brush.pattern.SplinePattern;
 import org.bukkit.NamespacedKey;
@@ -89,34 +90,25 @@ public class PaintBrush extends PatternBrush {
         var first = vectors.getFirst();
         var settings = pattern.settings();
 
-        Sphere.getBlocksInRadius(first, size).stream()
-                .filter(vector3 -> {
-                    var rate = getRate(settings.getFalloffStrength(), size, vector3, first);
-                    return settings.getRandom().nextDouble() > rate;
-                }).forEach(vector3 -> {
-                    pattern.random(settings.getRandom().nextInt(settings.getBlocks().size()));
-
-                    var curve = new LinkedList<MutableBlockVector3>();
-                    curve.add(MutableBlockVector3.at(vector3.getX(), vector3.getY(), vector3.getZ()));
-                    vectors.stream().skip(1).map(location -> MutableBlockVector3.at(
-                            vector3.getX() + location.getX() - first.getX(),
-                            vector3.getY() + location.getY() - first.getY(),
-                            vector3.getZ() + location.getZ() - first.getZ()
-                    )).forEach(curve::add);
-
-                    var spline = new BezierSpline(curve);
-                    var maxCount = (spline.getCurveLength() * 2.5) + 1;
-
-                    for (var y = 0; y <= maxCount; y++) {
-                        session.setBlock(spline.getPoint((y / maxCount) * (vectors.size() - 1)), pattern);
-                    }
-                });
-    }
+        var knotsX = new double[vectors.size()];
+        var knotsY = new double[vectors.size()];
+        var knotsZ = new double[vectors.size()];
+        for (var i = 0; i < vectors.size(); i++) {
+            var vector = vectors.get(i);
+            knotsX[i] = vector.getX() - first.getX();
+            knotsY[i] = vector.getY() - first.getY();
+            knotsZ[i] = vector.getZ() - first.getZ();
+        }
+        var path = CurveRasterizer.rasterize(new BezierSpline(knotsX, knotsY, knotsZ));
+
+        var falloff = FalloffKernel.linear(size, settings.getFalloffStrength(), size);
+
+        Sphere.forEachBlockInRadius(first, size, (x, y, z) -> {
+            var rate = falloff.getRate(first.getX(), first.getY(), first.getZ(), x, y, z);
+            if (settings.getRandom().nextDouble() <= rate) return;
 
-    private double getRate(double falloffStrength, double size, BlockVector3 vector3, BlockVector3 first) {
-        var falloffFactor = (100.0 - falloffStrength) / 100.0;
-        var numerator = vector3.distance(first) - size * falloffFactor;
-        var denominator = size - size * falloffFactor;
-        return numerator / denominator;
+            pattern.random(settings.getPalette().getRandomIndex(settings.getRandom()));
+            path.forEach(x, y, z, (blockX, blockY, blockZ) -> session.setBlock(blockX, blockY, blockZ, pattern));
+        });
     }
 }
@@ -19,18 +19,22 @@
 package net.thenextlvl.gopaint.brush.standard;
 
 import com.sk89q.worldedit.EditSession;
+import com.sk89q.worldedit.MaxChangedBlocksException;
 import com.sk89q.worldedit.entity.Player;
 import com.sk89q.worldedit.function.pattern.Pattern;
 import com.sk89q.worldedit.math.BlockVector3;
 import net.kyori.adventure.audience.Audience;
 import net.kyori.adventure.text.Component;
-import net.thenextlvl.gopaint.api.brush.SpherePatternBrush;
+import net.thenextlvl.gopaint.api.brush.PatternBrush;
 import net.thenextlvl.gopaint.api.brush.setting.BrushSettings;
+import net.thenextlvl.gopaint.api.math.GeometricSampler;
+import net.thenextlvl.gopaint.api.math.OffsetTables;
+import net.thenextlvl.gopaint.api.math.Sphere;
 import net.thenextlvl.gopaint.api.model.GoPaintProvider;
 import net.thenextlvl.gopaint.brush.pattern.SprayPattern;
 import org.bukkit.NamespacedKey;
 
-public class SprayBrush extends SpherePatternBrush {
+public class SprayBrush extends PatternBrush {
     private final GoPaintProvider provider;
 
     public SprayBrush(GoPaintProvider provider) {
@@ -55,4 +59,27 @@ public class SprayBrush extends SpherePatternBrush {
     public Pattern buildPattern(EditSession session, BlockVector3 position, Player player, BrushSettings settings) {
         return new SprayPattern(session, position, player, settings);
     }
+
+    @Override
+    public void build(EditSession session, BlockVector3 position, Pattern pattern, double size) throws MaxChangedBlocksException {
+        if (!(pattern instanceof SprayPattern spray)) return;
+        var probability = (100 - spray.settings().getChance()) / 100d;
+        if (probability <= 0) return;
+
+        var sampler = new GeometricSampler(spray.random().getSeed(), probability);
+        if (OffsetTables.isCacheable(size)) {
+            sampler.forEach(OffsetTables.ball(size), position.getX(), position.getY(), position.getZ(),
+                    (x, y, z) -> session.setBlock(x, y, z, pattern));
+            return;
+        }
+
+        var skip = new int[]{sampler.nextSkip()};
+        Sphere.forEachColumn(position, OffsetTables.getBallLimit(size), (x, z, minY, maxY) -> {
+            for (var y = minY; y <= maxY; y++) {
+                if (skip[0]-- > 0) continue;
+                session.setBlock(x, y, z, pattern);
+                skip[0] = sampler.nextSkip();
+            }
+        });
+    }
 }
@@ -1,18 +1,22 @@
 package net.thenextlvl.gopaint.brush.standard;
 
 import com.sk89q.worldedit.EditSession;
+import com.sk89q.worldedit.MaxChangedBlocksException;
 import com.sk89q.worldedit.entity.Player;
 import com.sk89q.worldedit.function.pattern.Pattern;
 import com.sk89q.worldedit.math.BlockVector3;
 import net.kyori.adventure.audience.Audience;
 import net.kyori.adventure.text.Component;
-import net.thenextlvl.gopaint.api.brush.SpherePatternBrush;
+import net.thenextlvl.gopaint.api.brush.PatternBrush;
 import net.thenextlvl.gopaint.api.brush.setting.BrushSettings;
+import net.thenextlvl.gopaint.api.math.ColumnScan;
+import net.thenextlvl.gopaint.api.math.OffsetTables;
+import net.thenextlvl.gopaint.api.math.Sphere;
 import net.thenextlvl.gopaint.api.model.GoPaintProvider;
 import net.thenextlvl.gopaint.brush.pattern.UnderlayPattern;
 import org.bukkit.NamespacedKey;
 
-public class UnderlayBrush extends SpherePatternBrush {
+public class UnderlayBrush extends PatternBrush {
     private final GoPaintProvider provider;
 
     public UnderlayBrush(GoPaintProvider provider) {
@@ -37,4 +41,15 @@ public class UnderlayBrush extends SpherePatternBrush {
     public Pattern buildPattern(EditSession session, BlockVector3 position, Player player, BrushSettings settings) {
         return new UnderlayPattern(session, position, player, settings);
     }
+
+    @Override
+    public void build(EditSession session, BlockVector3 position, Pattern pattern, double size) throws MaxChangedBlocksException {
+        if (!(pattern instanceof UnderlayPattern underlay)) return;
+        var thickness = underlay.settings().getThickness();
+        // the column scan already decided on the cover, so the block is set without asking the pattern again
+        Sphere.forEachColumn(position, OffsetTables.getBallLimit(size), (x, z, minY, maxY) ->
+                ColumnScan.scan(session, x, z, minY, maxY, thickness, (y, cover) -> {
+                    if (cover >= thickness) session.setBlock(x, y, z, underlay.getRandomBlockState());
+                }));
+    }
 }
@@ -12,6 +12,7 @@ import net.kyori.adventure.key.Key;
 import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
 import net.thenextlvl.gopaint.GoPaintPlugin;
 import net.thenextlvl.gopaint.api.brush.PatternBrush;
+import net.thenextlvl.gopaint.api.math.OffsetTables;
 import net.thenextlvl.gopaint.api.model.GoPaintProvider;
 import org.bukkit.entity.Player;
 
@@ -47,6 +48,12 @@ public class GoPaintCommand {
                 .then(Commands.literal("toggle")
                         .requires(stack -> stack.getSender() instanceof Player)
                         .executes(this::toggle))
+                .then(Commands.literal("drag")
+                        .requires(stack -> stack.getSender() instanceof Player)
+                        .executes(this::drag))
+                .then(Commands.literal("stats")
+                        .requires(stack -> stack.getSender().hasPermission(GoPaintProvider.ADMIN_PERMISSION))
+                        .executes(this::stats))
                 .then(Commands.literal("reload")
                         .requires(stack -> stack.getSender().hasPermission(GoPaintProvider.ADMIN_PERMISSION))
                         .executes(this::reload))
@@ -94,6 +101,32 @@ public class GoPaintCommand {
         return Command.SINGLE_SUCCESS;
     }
 
+    private int drag(CommandContext<CommandSourceStack> context) {
+        var player = (Player) context.getSource().getSender();
+        var settings = plugin.brushController().getBrushSettings(player);
+        settings.setDragEnabled(!settings.isDragEnabled());
+        var message = settings.isDragEnabled() ? "command.gopaint.drag.enabled"
+                : "command.gopaint.drag.disabled";
+        plugin.bundle().sendMessage(player, message);
+        return Command.SINGLE_SUCCESS;
+    }
+
+    private int stats(CommandContext<CommandSourceStack> context) {
+        var sender = context.getSource().getSender();
+        var executor = plugin.strokeExecutor();
+        var budget = plugin.blockBudget();
+        plugin.bundle().sendMessage(sender, "command.gopaint.stats",
+                Placeholder.parsed("workers", String.valueOf(executor.getWorkerCount())),
+                Placeholder.parsed("depth", String.valueOf(executor.getQueueDepth())),
+                Placeholder.parsed("wait", String.format("%.1f", executor.getAverageWait())),
+                Placeholder.parsed("budget", String.valueOf(Math.round(budget.getFactor() * 100))),
+                Placeholder.parsed("deferred", String.valueOf(budget.getDeferredChunks())),
+                Placeholder.parsed("throttles", String.valueOf(budget.getThrottleEvents())),
+                Placeholder.parsed("hits", String.valueOf(OffsetTables.getHits())),
+                Placeholder.parsed("misses", String.valueOf(OffsetTables.getMisses())));
+        return Command.SINGLE_SUCCESS;
+    }
+
     private int reload(CommandContext<CommandSourceStack> context) {
         var sender = context.getSource().getSender();
         plugin.reloadConfig();
@@ -32,5 +32,7 @@ public class ConnectListener implements Listener {
     @EventHandler(priority = EventPriority.LOWEST)
     public void onPlayerQuit(PlayerQuitEvent event) {
         plugin.brushController().removeBrushSettings(event.getPlayer());
+        plugin.strokeScheduler().remove(event.getPlayer());
+        plugin.dragPainter().release(event.getPlayer());
     }
 }
@@ -18,12 +18,8 @@
  */
 package net.thenextlvl.gopaint.listener;
 
-import com.fastasyncworldedit.core.function.mask.AirMask;
-import com.fastasyncworldedit.core.function.mask.InverseMask;
 import com.sk89q.worldedit.bukkit.BukkitAdapter;
 import com.sk89q.worldedit.bukkit.BukkitPlayer;
-import com.sk89q.worldedit.function.mask.MaskIntersection;
-import com.sk89q.worldedit.session.request.Request;
 import lombok.RequiredArgsConstructor;
 import net.thenextlvl.gopaint.GoPaintPlugin;
 import net.thenextlvl.gopaint.api.brush.setting.BrushSettings;
@@ -67,48 +63,18 @@ public final class InteractListener implements Listener {
 
         if (settings == null || settings.getBlocks().isEmpty()) return;
 
-        if (!(settings instanceof PlayerBrushSettings playerSettings) || playerSettings.isEnabled())
-            handleInteract(BukkitAdapter.adapt(player), settings);
-        else plugin.bundle().sendMessage(player, "brush.disabled");
+        if (settings instanceof PlayerBrushSettings playerSettings && !playerSettings.isEnabled()) {
+            plugin.bundle().sendMessage(player, "brush.disabled");
+        } else if (settings instanceof PlayerBrushSettings playerSettings && playerSettings.isDragEnabled()) {
+            plugin.dragPainter().hold(BukkitAdapter.adapt(player), settings);
+        } else handleInteract(BukkitAdapter.adapt(player), settings);
 
         event.setCancelled(true);
     }
 
     private void handleInteract(BukkitPlayer player, BrushSettings settings) {
-        player.runAsyncIfFree(() -> {
-            var session = player.getSession();
-
-            try (var editSession = session.createEditSession(player)) {
-
-                var blockTrace = player.getSolidBlockTrace(250);
-
-                if (blockTrace == null) {
-                    plugin.bundle().sendMessage(player.getPlayer(), "brush.block.sight");
-                    editSession.cancel();
-                    return;
-                }
-                var bag = session.getBlockBag(player);
-
-                try {
-                    Request.request().setEditSession(editSession);
-
-                    var position = blockTrace.toBlockPoint();
-                    var mask = MaskIntersection.of(new InverseMask(new AirMask(player.getWorld())),
-                            settings.getMask(session), settings.getSurfaceMask(player));
-                    var pattern = settings.getBrush().buildPattern(editSession, position, player, settings);
-
-                    editSession.setMask(mask);
-
-                    settings.getBrush().build(editSession, position, pattern, settings.getBrushSize() / 2d);
-
-                } finally {
-
-                    if (bag != null) bag.flushChanges();
-
-                    session.remember(editSession);
-                    Request.reset();
-                }
-            }
-        });
+        var blockTrace = player.getSolidBlockTrace(250);
+        if (blockTrace != null) plugin.strokeScheduler().submit(player, settings, blockTrace.toBlockPoint());
+        else plugin.bundle().sendMessage(player.getPlayer(), "brush.block.sight");
     }
 }
@@ -153,13 +153,19 @@ public final class InventoryListener implements Listener {
         } else if (event.getRawSlot() == 16 || event.getRawSlot() == 7 || event.getRawSlot() == 25) {
             settings.setSurfaceMode(switch (settings.getSurfaceMode()) {
                 case EXPOSED -> SurfaceMode.VISIBLE;
-                case VISIBLE -> SurfaceMode.DISABLED;
+                case VISIBLE -> SurfaceMode.DEPTH;
+                case DEPTH -> SurfaceMode.DISABLED;
                 case DISABLED -> SurfaceMode.EXPOSED;
             });
         } else if ((event.getRawSlot() >= 37 && event.getRawSlot() <= 41)
                    || (event.getRawSlot() >= 46 && event.getRawSlot() <= 50)) {
             int slot = event.getRawSlot() - (event.getRawSlot() >= 37 && event.getRawSlot() <= 41 ? 36 : 45);
-            if (event.getClick().isLeftClick()) {
+            if (event.getClick().isShiftClick()) {
+                if (settings.getBlocks().size() < slot) return;
+                var weight = settings.getWeights().get(slot - 1);
+                if (!event.getClick().isLeftClick() && weight <= 1) return;
+                settings.setWeight(slot, event.getClick().isLeftClick() ? weight + 1 : weight - 1);
+            } else if (event.getClick().isLeftClick()) {
                 if (!itemType.isSolid()) return;
                 settings.addBlock(itemType, slot);
             } else if (event.getClick().isRightClick()) {
@@ -77,15 +77,17 @@ public class MainMenu extends AbstractGUI {
 
         if (settings.getBlocks().isEmpty()) return;
 
-        var chance = 100d / settings.getBlocks().size();
         var formatter = DecimalFormat.getInstance(owner.locale());
         formatter.setMaximumFractionDigits(2);
 
         for (var i = 0; i < settings.getBlocks().size(); i++) {
+            var chance = settings.getPalette().getProbability(i) * 100;
+            var weight = settings.getWeights().get(i);
             inventory.setItem(i + 46, new ItemBuilder(settings.getBlocks().get(i))
-                    .amount(chance > 64 ? 1 : (int) chance)
+                    .amount(Math.clamp(weight, 1, 64))
                     .itemName(plugin.bundle().component(owner, "slot.set",
                             Placeholder.parsed("slot", String.valueOf(i + 1)),
+                            Placeholder.parsed("weight", String.valueOf(weight)),
                             Placeholder.parsed("chance", formatter.format(chance))))
                     .lore(plugin.bundle().components(owner, "slot.set.description")));
         }
@@ -259,6 +261,7 @@ public class MainMenu extends AbstractGUI {
             case EXPOSED -> Material.LIGHT_WEIGHTED_PRESSURE_PLATE;
             case DISABLED -> Material.POLISHED_BLACKSTONE_PRESSURE_PLATE;
             case VISIBLE -> Material.HEAVY_WEIGHTED_PRESSURE_PLATE;
+            case DEPTH -> Material.STONE_PRESSURE_PLATE;
         };
 
         var mode = plugin.bundle().component(owner, settings.getSurfaceMode().translationKey())
@@ -266,6 +269,7 @@ public class MainMenu extends AbstractGUI {
                     case EXPOSED -> NamedTextColor.GREEN;
                     case DISABLED -> NamedTextColor.RED;
                     case VISIBLE -> NamedTextColor.GOLD;
+                    case DEPTH -> NamedTextColor.AQUA;
                 });
 
         inventory.setItem(16, new ItemBuilder(icon)
@@ -278,6 +282,7 @@ public class MainMenu extends AbstractGUI {
             case EXPOSED -> Material.LIME_STAINED_GLASS_PANE;
             case DISABLED -> Material.RED_STAINED_GLASS_PANE;
             case VISIBLE -> Material.ORANGE_STAINED_GLASS_PANE;
+            case DEPTH -> Material.LIGHT_BLUE_STAINED_GLASS_PANE;
         }).hideTooltip(true);
 
         inventory.setItem(7, placeholder);
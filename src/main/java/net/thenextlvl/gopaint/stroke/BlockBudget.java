@@ -0,0 +1,149 @@
+package net.thenextlvl.gopaint.stroke;
+
+import org.bukkit.Server;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A global budget of block changes per tick, shared by all strokes.
+ * <p>
+ * The budget is refilled once per tick on the main thread, without carrying unused blocks over into the next tick.
+ * Once the average tick time rises above the configured threshold, the refill shrinks linearly
+ * down to the configured minimum share as the tick time approaches {@value #TICK_TIME} milliseconds.
+ * <p>
+ * Strokes are painted in chunks of at most {@link #getChunkSize()} estimated blocks. A chunk only starts while
+ * the budget is not exhausted, and its estimated blocks are reserved right away, before anything is committed.
+ * Once its edit session is committed, the reservation is settled against the blocks it actually changed.
+ * So the budget may be overdrawn by a single chunk, which is paid back by the following refills.
+ * Chunks never wait for the budget on their worker. Instead, they are deferred and resubmitted
+ * once the budget was refilled, so large strokes are spread across ticks instead of being rejected.
+ */
+public final class BlockBudget implements Runnable {
+    private static final double TICK_TIME = 50;
+
+    private final List<Runnable> deferred = new ArrayList<>();
+    private final Server server;
+
+    private long blocksPerTick;
+    private double msptThreshold;
+    private double minimumFactor;
+
+    private long available;
+    private double factor = 1;
+    private boolean throttled;
+    private long deferredChunks;
+    private long throttleEvents;
+
+    public BlockBudget(Server server) {
+        this.server = server;
+    }
+
+    /**
+     * Configures the budget, resuming all deferred chunks.
+     *
+     * @param blocksPerTick the amount of blocks strokes may change per tick, or {@code 0} for no limit
+     * @param msptThreshold the average tick time above which the budget shrinks, in milliseconds
+     * @param minimumFactor the smallest share of the budget left under load, from {@code 0} to {@code 1}
+     */
+    public void configure(long blocksPerTick, double msptThreshold, double minimumFactor) {
+        synchronized (this) {
+            this.blocksPerTick = Math.max(0, blocksPerTick);
+            this.msptThreshold = msptThreshold;
+            this.minimumFactor = Math.clamp(minimumFactor, 0, 1);
+            this.available = this.blocksPerTick;
+        }
+        resume();
+    }
+
+    @Override
+    public void run() {
+        synchronized (this) {
+            if (blocksPerTick == 0) return;
+            var mspt = server.getAverageTickTime();
+            factor = mspt <= msptThreshold ? 1 : Math.clamp(1 - (mspt - msptThreshold)
+                    / Math.max(1, TICK_TIME - msptThreshold) * (1 - minimumFactor), minimumFactor, 1);
+            if (factor < 1 && !throttled) throttleEvents++;
+            throttled = factor < 1;
+            var budget = Math.max(1, (long) (blocksPerTick * factor));
+            available = Math.min(budget, available + budget);
+            if (available <= 0) return;
+        }
+        resume();
+    }
+
+    /**
+     * Checks whether a chunk may start right away, reserving its estimated blocks if it may.
+     * If the budget is exhausted, the given task is run on the main thread after the next refill instead.
+     *
+     * @param blocks the estimated amount of blocks the chunk changes
+     * @param resume the task resubmitting the chunk
+     * @return true if the chunk may start
+     */
+    public synchronized boolean tryStart(long blocks, Runnable resume) {
+        if (blocksPerTick == 0) return true;
+        if (available > 0) {
+            available -= blocks;
+            return true;
+        }
+        deferred.add(resume);
+        deferredChunks++;
+        return false;
+    }
+
+    /**
+     * Settles the reservation of a committed chunk against the blocks it actually changed.
+     *
+     * @param reserved the amount of blocks reserved when the chunk started
+     * @param blocks   the amount of changed blocks
+     */
+    public synchronized void settle(long reserved, long blocks) {
+        if (blocksPerTick != 0) available += reserved - blocks;
+    }
+
+    /**
+     * Returns the largest estimated amount of blocks painted as one chunk.
+     *
+     * @return the chunk size, or {@link Long#MAX_VALUE} if strokes are not limited
+     */
+    public synchronized long getChunkSize() {
+        return blocksPerTick != 0 ? blocksPerTick : Long.MAX_VALUE;
+    }
+
+    /**
+     * Returns how often a chunk was deferred because the budget was exhausted.
+     *
+     * @return the amount of deferred chunks
+     */
+    public synchronized long getDeferredChunks() {
+        return deferredChunks;
+    }
+
+    /**
+     * Returns how often the budget started shrinking because of a high tick time.
+     *
+     * @return the amount of throttle events
+     */
+    public synchronized long getThrottleEvents() {
+        return throttleEvents;
+    }
+
+    /**
+     * Returns the share of the configured budget currently refilled per tick.
+     *
+     * @return the current budget factor, from {@code 0} to {@code 1}
+     */
+    public synchronized double getFactor() {
+        return factor;
+    }
+
+    private void resume() {
+        List<Runnable> tasks;
+        synchronized (this) {
+            if (deferred.isEmpty()) return;
+            tasks = List.copyOf(deferred);
+            deferred.clear();
+        }
+        tasks.forEach(Runnable::run);
+    }
+}
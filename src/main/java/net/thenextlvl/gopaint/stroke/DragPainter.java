@@ -0,0 +1,120 @@
+package net.thenextlvl.gopaint.stroke;
+
+import com.sk89q.worldedit.bukkit.BukkitPlayer;
+import com.sk89q.worldedit.math.BlockVector3;
+import lombok.RequiredArgsConstructor;
+import net.thenextlvl.gopaint.GoPaintPlugin;
+import net.thenextlvl.gopaint.api.brush.setting.BrushSettings;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Paints continuous strokes while players hold right-click with drag painting enabled.
+ * <p>
+ * The aim of every dragging player is sampled once per tick. The segment between two consecutive hit points is
+ * interpolated into dabs spaced a fraction of the brush size apart, and all dabs of a tick are submitted as a single
+ * stroke, so the swept capsule is painted as one de-duplicated footprint into one edit session.
+ * The last dab of the previous tick is carried over into that footprint, so consecutive ticks do not overlap either.
+ * <p>
+ * Clients repeat right-click every few ticks while it is held, so a drag ends once no click arrived for longer than that.
+ */
+@RequiredArgsConstructor
+public final class DragPainter implements Runnable {
+    private static final int HOLD_TICKS = 5;
+    private static final int MAX_DABS = 64;
+
+    private final Map<UUID, Drag> drags = new HashMap<>();
+    private final GoPaintPlugin plugin;
+
+    /**
+     * Starts or continues the drag of the given player.
+     * Must be called from the main thread whenever the player right-clicks with drag painting enabled.
+     *
+     * @param player   the player dragging the brush
+     * @param settings the settings to paint with
+     */
+    public void hold(BukkitPlayer player, BrushSettings settings) {
+        var tick = plugin.getServer().getCurrentTick();
+        var drag = drags.get(player.getUniqueId());
+        if (drag != null) {
+            drag.settings = settings;
+            drag.heldTick = tick;
+            return;
+        }
+        var blockTrace = player.getSolidBlockTrace(250);
+        if (blockTrace == null) {
+            plugin.bundle().sendMessage(player.getPlayer(), "brush.block.sight");
+            return;
+        }
+        var position = blockTrace.toBlockPoint();
+        drags.put(player.getUniqueId(), new Drag(player, settings, position, tick));
+        plugin.strokeScheduler().submit(player, settings, position);
+    }
+
+    /**
+     * Ends the drag of the given player.
+     *
+     * @param player the player to stop dragging
+     */
+    public void release(Player player) {
+        drags.remove(player.getUniqueId());
+    }
+
+    @Override
+    public void run() {
+        var tick = plugin.getServer().getCurrentTick();
+        drags.values().removeIf(drag -> tick - drag.heldTick > HOLD_TICKS || !drag.player.getPlayer().isOnline());
+        drags.values().forEach(this::sample);
+    }
+
+    private void sample(Drag drag) {
+        var blockTrace = drag.player.getSolidBlockTrace(250);
+        if (blockTrace == null) return;
+        var target = blockTrace.toBlockPoint();
+        if (target.equals(drag.position)) return;
+        plugin.strokeScheduler().submit(drag.player, drag.settings, drag.position, interpolate(drag.position, target,
+                Math.max(1, drag.settings.getBrushSize() / 4d)));
+        drag.position = target;
+    }
+
+    private static List<BlockVector3> interpolate(BlockVector3 from, BlockVector3 to, double spacing) {
+        var distanceX = to.getX() - from.getX();
+        var distanceY = to.getY() - from.getY();
+        var distanceZ = to.getZ() - from.getZ();
+        var length = Math.sqrt(distanceX * distanceX + distanceY * distanceY + distanceZ * distanceZ);
+        var dabs = Math.clamp((int) Math.ceil(length / spacing), 1, MAX_DABS);
+        var positions = new ArrayList<BlockVector3>(dabs);
+        var previous = from;
+        for (var dab = 1; dab <= dabs; dab++) {
+            var progress = dab / (double) dabs;
+            var position = BlockVector3.at(
+                    from.getX() + (int) Math.round(distanceX * progress),
+                    from.getY() + (int) Math.round(distanceY * progress),
+                    from.getZ() + (int) Math.round(distanceZ * progress)
+            );
+            if (position.equals(previous)) continue;
+            positions.add(position);
+            previous = position;
+        }
+        return positions;
+    }
+
+    private static final class Drag {
+        private final BukkitPlayer player;
+        private BrushSettings settings;
+        private BlockVector3 position;
+        private int heldTick;
+
+        private Drag(BukkitPlayer player, BrushSettings settings, BlockVector3 position, int heldTick) {
+            this.player = player;
+            this.settings = settings;
+            this.position = position;
+            this.heldTick = heldTick;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package net.thenextlvl.gopaint.stroke;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Paints strokes on a pool of worker threads owned by goPaint, sharing them fairly between players.
+ * <p>
+ * Tasks are ordered by start-time fair queuing. Every task is stamped with a virtual start time, the later of the
+ * global virtual time and the finish time of the previous task of the same player, and a virtual finish time,
+ * its start time plus its estimated cost divided by the weight of the player. Idle workers always run the task
+ * with the earliest start time and advance the virtual time to it, so the next task of a player painting
+ * huge strokes starts late in virtual time and only delays others by their own share.
+ */
+public final class StrokeExecutor {
+    private static final double WAIT_SMOOTHING = 0.1;
+
+    private final PriorityQueue<Task> tasks = new PriorityQueue<>();
+    private final Map<UUID, Double> finishTimes = new HashMap<>();
+    private final Logger logger;
+
+    private @Nullable ExecutorService workers;
+    private int workerCount;
+    private double virtualTime;
+    private long sequence;
+    private double averageWait;
+
+    public StrokeExecutor(Logger logger) {
+        this.logger = logger;
+    }
+
+    /**
+     * Starts the worker threads.
+     *
+     * @param workerCount    the amount of strokes painted at the same time
+     * @param virtualThreads whether to paint on virtual instead of platform threads
+     */
+    public synchronized void start(int workerCount, boolean virtualThreads) {
+        if (workers != null) return;
+        this.workerCount = Math.max(1, workerCount);
+        var factory = virtualThreads
+                ? Thread.ofVirtual().name("goPaint Painter #", 1).factory()
+                : Thread.ofPlatform().name("goPaint Painter #", 1).daemon(true).factory();
+        this.workers = Executors.newFixedThreadPool(this.workerCount, factory);
+    }
+
+    /**
+     * Stops accepting tasks and discards the queued ones without waiting for them.
+     * Tasks that are already running finish on their worker.
+     *
+     * @return the amount of discarded tasks
+     */
+    public int shutdown() {
+        ExecutorService workers;
+        int discarded;
+        synchronized (this) {
+            workers = this.workers;
+            this.workers = null;
+            discarded = tasks.size();
+            tasks.clear();
+            finishTimes.clear();
+        }
+        if (workers != null) workers.shutdown();
+        return discarded;
+    }
+
+    /**
+     * Queues a task of the given player.
+     *
+     * @param owner  the unique id of the player owning the task
+     * @param weight the share of the player, relative to other players
+     * @param cost   the estimated cost of the task, for example the amount of blocks it visits
+     * @param task   the task to run
+     * @return false if the executor is not running
+     */
+    public synchronized boolean submit(UUID owner, double weight, long cost, Runnable task) {
+        if (workers == null) return false;
+        finishTimes.values().removeIf(finish -> finish <= virtualTime);
+        var start = Math.max(virtualTime, finishTimes.getOrDefault(owner, virtualTime));
+        var finish = start + Math.max(1, cost) / Math.max(Double.MIN_NORMAL, weight);
+        finishTimes.put(owner, finish);
+        tasks.add(new Task(task, start, finish, sequence++, System.nanoTime()));
+        try {
+            workers.execute(this::runNext);
+            return true;
+        } catch (RejectedExecutionException e) {
+            tasks.removeIf(queued -> queued.runnable() == task);
+            return false;
+        }
+    }
+
+    private void runNext() {
+        Task task;
+        synchronized (this) {
+            task = tasks.poll();
+            if (task == null) return;
+            virtualTime = Math.max(virtualTime, task.start());
+            averageWait += (System.nanoTime() - task.submitted() - averageWait) * WAIT_SMOOTHING;
+        }
+        try {
+            task.runnable().run();
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "Failed to paint stroke", e);
+        }
+    }
+
+    /**
+     * Returns the amount of strokes painted at the same time.
+     *
+     * @return the amount of workers
+     */
+    public synchronized int getWorkerCount() {
+        return workerCount;
+    }
+
+    /**
+     * Returns the amount of tasks waiting for a worker.
+     *
+     * @return the queue depth
+     */
+    public synchronized int getQueueDepth() {
+        return tasks.size();
+    }
+
+    /**
+     * Returns the exponentially smoothed time tasks waited for a worker.
+     *
+     * @return the average wait time, in milliseconds
+     */
+    public synchronized double getAverageWait() {
+        return averageWait / 1_000_000d;
+    }
+
+    private record Task(Runnable runnable, double start, double finish, long sequence, long submitted)
+            implements Comparable<Task> {
+        @Override
+        public int compareTo(Task task) {
+            var compare = Double.compare(start, task.start);
+            return compare != 0 ? compare : Long.compare(sequence, task.sequence);
+        }
+    }
+}
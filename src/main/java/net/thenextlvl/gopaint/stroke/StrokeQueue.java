@@ -0,0 +1,338 @@
+/*
+ * goPaint is designed to simplify painting inside of Minecraft.
+ * Copyright (C) Arcaniax-Development
+ * Copyright (C) Arcaniax team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.thenextlvl.gopaint.stroke;
+
+import com.fastasyncworldedit.core.function.mask.AirMask;
+import com.fastasyncworldedit.core.function.mask.InverseMask;
+import com.sk89q.worldedit.bukkit.BukkitPlayer;
+import com.sk89q.worldedit.function.mask.Mask;
+import com.sk89q.worldedit.function.mask.MaskIntersection;
+import com.sk89q.worldedit.function.mask.Masks;
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldedit.session.request.Request;
+import net.thenextlvl.gopaint.GoPaintPlugin;
+import net.thenextlvl.gopaint.api.brush.mask.FootprintMask;
+import net.thenextlvl.gopaint.api.brush.mask.SliceMask;
+import net.thenextlvl.gopaint.api.brush.setting.BrushSettings;
+import net.thenextlvl.gopaint.brush.setting.CraftItemBrushSettings;
+import net.thenextlvl.gopaint.brush.standard.DiscBrush;
+import org.bukkit.Axis;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.logging.Level;
+
+/**
+ * A bounded queue of the pending strokes of a single player.
+ * <p>
+ * Strokes are painted in submission order, one batch at a time, on the {@link StrokeExecutor}.
+ * Every stroke keeps the immutable copy of the settings it was submitted with.
+ * Consecutive strokes whose settings are equal by value are painted as one batch into a single edit session,
+ * so they share one history entry and one flush. Every click of a batch is painted in full.
+ * The dabs of swept strokes are painted as a single {@link FootprintMask footprint},
+ * so every block of the swept capsule is only offered to its nearest dab.
+ * Leading dabs carried over from the previous stroke are not painted again and keep their whole footprint.
+ * <p>
+ * Batches are limited to the {@link BlockBudget#getChunkSize() chunk size} of the block budget, so large strokes
+ * are split into several batches, each resubmitted to the executor. Dabs larger than the chunk size are split
+ * into {@link SliceMask slices}, each painted as its own batch. Every batch reserves its estimated blocks before
+ * it starts, and while the budget is exhausted, it is deferred until the budget is refilled
+ * instead of waiting on its worker.
+ * <p>
+ * The worker picked by the executor hands every batch to the FAWE action queue of the player without waiting for it,
+ * and the next batch is only scheduled once the action completed. So strokes never run at the same time as
+ * FAWE commands of the same player, such as {@code //undo}, and a busy action queue does not hold a worker.
+ */
+final class StrokeQueue {
+    private final Deque<PendingStroke> pending = new ArrayDeque<>();
+    private final GoPaintPlugin plugin;
+    private final BukkitPlayer player;
+    private boolean draining;
+    private boolean closed;
+
+    StrokeQueue(GoPaintPlugin plugin, BukkitPlayer player) {
+        this.plugin = plugin;
+        this.player = player;
+    }
+
+    /**
+     * Submits a stroke, applying the configured policy if the queue is full.
+     *
+     * @param settings  the immutable settings to paint the stroke with
+     * @param positions the centers of the dabs of the stroke
+     * @param swept     whether the dabs are painted as a single footprint
+     * @param carried   the amount of leading dabs of a swept stroke that were already painted by the previous one
+     * @param weight    the share of the player at the time of submission, relative to other players
+     * @return false if the stroke was rejected
+     */
+    synchronized boolean offer(CraftItemBrushSettings settings, List<BlockVector3> positions, boolean swept,
+                               int carried, double weight) {
+        if (closed) return false;
+        var config = plugin.config().queueConfig();
+        var capacity = Math.max(1, config.capacity());
+        if (pending.size() >= capacity) switch (config.fullPolicy()) {
+            case DROP_OLDEST -> {
+                if (!dropOldest()) return false;
+            }
+            case COALESCE -> {
+                return coalesce(settings, positions.subList(carried, positions.size()), swept, capacity);
+            }
+            case REJECT -> {
+                return false;
+            }
+        }
+        pending.add(new PendingStroke(settings, new ArrayList<>(positions), swept, carried, weight));
+        if (!draining) schedule();
+        return true;
+    }
+
+    /**
+     * Discards all pending strokes and rejects further ones.
+     * A stroke that is partially painted counts as discarded.
+     *
+     * @return the amount of discarded strokes
+     */
+    synchronized int close() {
+        var discarded = pending.size();
+        pending.clear();
+        closed = true;
+        return discarded;
+    }
+
+    private boolean dropOldest() {
+        var iterator = pending.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().isStarted()) continue;
+            iterator.remove();
+            return true;
+        }
+        return false;
+    }
+
+    private boolean coalesce(CraftItemBrushSettings settings, List<BlockVector3> positions, boolean swept, int capacity) {
+        var iterator = pending.descendingIterator();
+        while (iterator.hasNext()) {
+            var stroke = iterator.next();
+            if (stroke.isStarted() || stroke.swept != swept || !stroke.settings.equals(settings)) continue;
+            if (stroke.positions.containsAll(positions)) return true;
+            if (stroke.positions.size() >= capacity) return false;
+            stroke.positions.addAll(positions);
+            return true;
+        }
+        return false;
+    }
+
+    private void schedule() {
+        draining = true;
+        var weight = pending.getFirst().weight;
+        if (plugin.strokeExecutor().submit(player.getUniqueId(), weight, getCost(), this::drain)) return;
+        plugin.getLogger().warning("Discarding " + pending.size() + " strokes of " + player.getName()
+                                   + ", the stroke executor is not running");
+        pending.clear();
+        draining = false;
+    }
+
+    private synchronized void retry() {
+        if (pending.isEmpty()) draining = false;
+        else schedule();
+    }
+
+    private void drain() {
+        var reserved = getReservation();
+        if (!plugin.blockBudget().tryStart(reserved, this::retry)) return;
+        var batch = poll();
+        if (!batch.isEmpty()) {
+            paintExclusively(batch.getFirst().stroke().settings, batch, reserved);
+            return;
+        }
+        plugin.blockBudget().settle(reserved, 0);
+        retry();
+    }
+
+    private void paintExclusively(BrushSettings settings, List<Chunk> chunks, long reserved) {
+        try {
+            player.runAction(() -> {
+                try {
+                    paint(settings, chunks, reserved);
+                } catch (Exception e) {
+                    plugin.getLogger().log(Level.SEVERE, "Failed to paint stroke", e);
+                } finally {
+                    retry();
+                }
+            }, false, true);
+        } catch (RuntimeException e) {
+            plugin.blockBudget().settle(reserved, 0);
+            retry();
+            throw e;
+        }
+    }
+
+    private synchronized long getReservation() {
+        return pending.isEmpty() ? 0 : getCost();
+    }
+
+    private long getCost() {
+        var head = pending.getFirst();
+        var dabCost = getDabCost(head.settings);
+        var chunkSize = plugin.blockBudget().getChunkSize();
+        if (dabCost > chunkSize) return Math.ceilDiv(dabCost, getSlices(head, dabCost, chunkSize));
+        var dabs = 0L;
+        for (var stroke : pending) {
+            if (!stroke.settings.equals(head.settings)) break;
+            dabs += stroke.positions.size() - stroke.painted;
+        }
+        return Math.min(dabs * dabCost, chunkSize);
+    }
+
+    private static long getDabCost(BrushSettings settings) {
+        var size = settings.getBrushSize() + 1L;
+        return getPlane(settings) != null ? size * size : size * size * size;
+    }
+
+    private static int getSlices(PendingStroke stroke, long dabCost, long chunkSize) {
+        if (stroke.slice != 0) return stroke.slices;
+        return (int) Math.min(Integer.MAX_VALUE, Math.ceilDiv(dabCost, chunkSize));
+    }
+
+    private static @Nullable Axis getPlane(BrushSettings settings) {
+        return settings.getBrush() instanceof DiscBrush ? settings.getAxis() : null;
+    }
+
+    private synchronized List<Chunk> poll() {
+        var batch = new ArrayList<Chunk>();
+        var head = pending.peek();
+        if (head == null) return batch;
+        var dabCost = getDabCost(head.settings);
+        var chunkSize = plugin.blockBudget().getChunkSize();
+        var slices = getSlices(head, dabCost, chunkSize);
+        if (slices > 1) {
+            if (head.swept && !head.isStarted()) merge(head);
+            batch.add(new Chunk(head, head.painted, head.painted + 1, head.slice, slices));
+            head.slices = slices;
+            if (++head.slice < slices) return batch;
+            head.slice = 0;
+            if (++head.painted == head.positions.size()) pending.removeFirst();
+            return batch;
+        }
+        var remaining = chunkSize / dabCost;
+        while (remaining > 0 && !pending.isEmpty() && pending.getFirst().settings.equals(head.settings)) {
+            var stroke = pending.getFirst();
+            if (stroke.swept && !stroke.isStarted()) merge(stroke);
+            var from = stroke.painted;
+            var to = (int) Math.min(stroke.positions.size(), from + remaining);
+            batch.add(new Chunk(stroke, from, to, 0, 1));
+            remaining -= to - from;
+            stroke.painted = to;
+            if (to == stroke.positions.size()) pending.removeFirst();
+        }
+        return batch;
+    }
+
+    private void merge(PendingStroke stroke) {
+        var iterator = pending.iterator();
+        iterator.next();
+        while (iterator.hasNext()) {
+            var next = iterator.next();
+            if (!next.swept || !next.settings.equals(stroke.settings)) break;
+            stroke.positions.addAll(next.positions.subList(next.carried, next.positions.size()));
+            iterator.remove();
+        }
+    }
+
+    private void paint(BrushSettings settings, List<Chunk> chunks, long reserved) {
+        var session = player.getSession();
+        var editSession = session.createEditSession(player);
+        try (editSession) {
+            var bag = session.getBlockBag(player);
+
+            try {
+                Request.request().setEditSession(editSession);
+
+                for (var chunk : chunks) {
+                    var positions = chunk.stroke().positions;
+                    var footprints = chunk.stroke().getFootprints();
+                    for (var dab = chunk.from(); dab < chunk.to(); dab++) {
+                        var position = positions.get(dab);
+                        var mask = MaskIntersection.of(getSlice(settings, position, chunk),
+                                new InverseMask(new AirMask(player.getWorld())),
+                                settings.getMask(session), settings.getSurfaceMask(player, position),
+                                footprints != null ? footprints[dab] : Masks.alwaysTrue());
+                        var pattern = settings.getBrush().buildPattern(editSession, position, player, settings);
+
+                        editSession.setMask(mask);
+
+                        settings.getBrush().build(editSession, position, pattern, settings.getBrushSize() / 2d);
+                    }
+                }
+
+            } finally {
+
+                if (bag != null) bag.flushChanges();
+
+                session.remember(editSession);
+                Request.reset();
+            }
+        } finally {
+            plugin.blockBudget().settle(reserved, editSession.getBlockChangeCount());
+        }
+    }
+
+    private static Mask getSlice(BrushSettings settings, BlockVector3 position, Chunk chunk) {
+        if (chunk.slices() == 1) return Masks.alwaysTrue();
+        var bound = settings.getBrushSize() / 2 + 1;
+        return SliceMask.of(position, bound, chunk.slice(), chunk.slices(), getPlane(settings));
+    }
+
+    private static final class PendingStroke {
+        private final CraftItemBrushSettings settings;
+        private final List<BlockVector3> positions;
+        private final boolean swept;
+        private final int carried;
+        private final double weight;
+        private FootprintMask @Nullable [] footprints;
+        private int painted;
+        private int slice;
+        private int slices;
+
+        private PendingStroke(CraftItemBrushSettings settings, List<BlockVector3> positions, boolean swept,
+                              int carried, double weight) {
+            this.settings = settings;
+            this.positions = positions;
+            this.swept = swept;
+            this.carried = carried;
+            this.weight = weight;
+            this.painted = carried;
+        }
+
+        private boolean isStarted() {
+            return painted != carried || slice != 0;
+        }
+
+        private FootprintMask @Nullable [] getFootprints() {
+            if (!swept || footprints != null) return footprints;
+            return footprints = FootprintMask.of(positions, carried, settings.getBrushSize() / 2d, getPlane(settings));
+        }
+    }
+
+    private record Chunk(PendingStroke stroke, int from, int to, int slice, int slices) {
+    }
+}
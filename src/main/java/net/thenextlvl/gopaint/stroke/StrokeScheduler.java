@@ -0,0 +1,92 @@
+package net.thenextlvl.gopaint.stroke;
+
+import com.sk89q.worldedit.bukkit.BukkitPlayer;
+import com.sk89q.worldedit.math.BlockVector3;
+import lombok.RequiredArgsConstructor;
+import net.thenextlvl.gopaint.GoPaintPlugin;
+import net.thenextlvl.gopaint.api.brush.setting.BrushSettings;
+import net.thenextlvl.gopaint.api.model.GoPaintProvider;
+import net.thenextlvl.gopaint.brush.setting.CraftItemBrushSettings;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Routes the strokes of every player into their own {@link StrokeQueue}.
+ */
+@RequiredArgsConstructor
+public final class StrokeScheduler {
+    private final Map<UUID, StrokeQueue> queues = new ConcurrentHashMap<>();
+    private final GoPaintPlugin plugin;
+
+    /**
+     * Submits a stroke of the given player, notifying them if it was rejected.
+     * The settings are copied and the share of the player is resolved right away,
+     * so later changes do not affect the pending stroke.
+     * Must be called from the main thread.
+     *
+     * @param player   the player painting the stroke
+     * @param settings the settings to paint the stroke with
+     * @param position the center of the stroke
+     */
+    public void submit(BukkitPlayer player, BrushSettings settings, BlockVector3 position) {
+        submit(player, settings, List.of(position), false, 0);
+    }
+
+    /**
+     * Submits a swept stroke made of several dabs of the given player, notifying them if it was rejected.
+     * The dabs are painted as a single footprint, which leaves out the footprint of the previous dab.
+     * The settings are copied and the share of the player is resolved right away,
+     * so later changes do not affect the pending stroke.
+     * Must be called from the main thread.
+     *
+     * @param player    the player painting the stroke
+     * @param settings  the settings to paint the stroke with
+     * @param previous  the center of the dab painted right before the stroke, which is not painted again
+     * @param positions the centers of the dabs of the stroke
+     */
+    public void submit(BukkitPlayer player, BrushSettings settings, BlockVector3 previous,
+                       List<BlockVector3> positions) {
+        var dabs = new ArrayList<BlockVector3>(positions.size() + 1);
+        dabs.add(previous);
+        dabs.addAll(positions);
+        submit(player, settings, dabs, true, 1);
+    }
+
+    private void submit(BukkitPlayer player, BrushSettings settings, List<BlockVector3> positions, boolean swept,
+                        int carried) {
+        var bukkitPlayer = player.getPlayer();
+        var weight = bukkitPlayer.hasPermission(GoPaintProvider.PRIORITY_PERMISSION)
+                ? plugin.config().executorConfig().priorityWeight() : 1;
+        var queue = queues.computeIfAbsent(player.getUniqueId(), uuid -> new StrokeQueue(plugin, player));
+        if (queue.offer(CraftItemBrushSettings.copyOf(settings), positions, swept, carried, weight)) return;
+        plugin.bundle().sendMessage(bukkitPlayer, "brush.queue.full");
+    }
+
+    /**
+     * Discards all pending strokes of the given player.
+     *
+     * @param player the player whose strokes to discard
+     */
+    public void remove(Player player) {
+        var queue = queues.remove(player.getUniqueId());
+        if (queue != null) queue.close();
+    }
+
+    /**
+     * Discards the pending strokes of all players and rejects further ones.
+     * Strokes that are already being painted are not affected.
+     *
+     * @return the amount of discarded strokes
+     */
+    public int shutdown() {
+        var discarded = 0;
+        for (var queue : queues.values()) discarded += queue.close();
+        queues.clear();
+        return discarded;
+    }
+}